@@ -40,9 +40,11 @@ public class ReleaseConfiguration {
         git.setCommitMessagePostfix("[ci skip]");
         git.setUser("shipkit-org");
         git.setEmail("<shipkit.org@gmail.com>");
+        git.setUseJGit(false);
 
         gitHub.setUrl("https://github.com");
         gitHub.setApiUrl("https://api.github.com");
+        gitHub.setUseGraphQL(false);
 
         releaseNotes.setFile("docs/release-notes.md");
         releaseNotes.setIgnoreCommitsContaining(asList("[ci skip]"));
@@ -214,6 +216,26 @@ public class ReleaseConfiguration {
         public void setWriteAuthToken(String writeAuthToken) {
             configuration.put("gitHub.writeAuthToken", writeAuthToken);
         }
+
+        /**
+         * Whether to use GitHub GraphQL API to fetch the tickets referenced in the release notes
+         * and the names of project contributors.
+         * GraphQL API returns exactly the referenced tickets, in batches,
+         * instead of browsing all closed issues of the repository.
+         * Names of contributors are fetched with one request per page of contributors,
+         * instead of one request per contributor.
+         * Requires GitHub instance that offers GraphQL API, defaults to false.
+         */
+        public boolean isUseGraphQL() {
+            return getBoolean("gitHub.useGraphQL");
+        }
+
+        /**
+         * See {@link #isUseGraphQL()}
+         */
+        public void setUseGraphQL(boolean useGraphQL) {
+            configuration.put("gitHub.useGraphQL", useGraphQL);
+        }
     }
 
     public class ReleaseNotes {
@@ -347,6 +369,22 @@ public class ReleaseConfiguration {
             //TODO protect this setter and other relevant from invalid input (null value)
             configuration.put("git.commitMessagePostfix", commitMessagePostfix);
         }
+
+        /**
+         * Whether release notes should read the git repository in-process with JGit instead of forking 'git' processes.
+         * Commits, tags and dates are read at in-memory speed and the result does not depend on the installed git version.
+         * Defaults to false.
+         */
+        public boolean isUseJGit() {
+            return getBoolean("git.useJGit");
+        }
+
+        /**
+         * See {@link #isUseJGit()}
+         */
+        public void setUseJGit(boolean useJGit) {
+            configuration.put("git.useJGit", useJGit);
+        }
     }
 
     /**
@@ -32,10 +32,13 @@ public class ReleaseNotesFetcherTask extends DefaultTask {
     @Input private String gitHubRepository;
     @Input private String tagPrefix = "v";
     @Input private boolean onlyPullRequests;
+    @Input private boolean useGraphQL;
+    @Input private boolean useJGit;
     @Input private File gitWorkDir = getProject().getRootDir();
     @Input private Collection<String> gitHubLabels = Collections.emptyList();
     @Input private Collection<String> ignoreCommitsContaining;
     @OutputFile private File outputFile;
+    private File commitIndexFile;
 
     public String getGitHubApiUrl() {
         return gitHubApiUrl;
@@ -130,6 +133,34 @@ public class ReleaseNotesFetcherTask extends DefaultTask {
         this.onlyPullRequests = onlyPullRequests;
     }
 
+    /**
+     * See {@link ReleaseConfiguration.GitHub#isUseGraphQL()}
+     */
+    public boolean isUseGraphQL() {
+        return useGraphQL;
+    }
+
+    /**
+     * See {@link #isUseGraphQL()}
+     */
+    public void setUseGraphQL(boolean useGraphQL) {
+        this.useGraphQL = useGraphQL;
+    }
+
+    /**
+     * See {@link ReleaseConfiguration.Git#isUseJGit()}
+     */
+    public boolean isUseJGit() {
+        return useJGit;
+    }
+
+    /**
+     * See {@link #isUseJGit()}
+     */
+    public void setUseJGit(boolean useJGit) {
+        this.useJGit = useJGit;
+    }
+
     /**
      * See {@link ReleaseConfiguration.Git#getTagPrefix()}
      */
@@ -188,10 +219,27 @@ public class ReleaseNotesFetcherTask extends DefaultTask {
         this.ignoreCommitsContaining = ignoreCommitsContaining;
     }
 
+    /**
+     * Index of commits parsed by previous runs, so that only new commits need to be parsed.
+     * It is only a cache, it does not affect the outcome of the task.
+     * If not set, all commits are parsed every time.
+     */
+    public File getCommitIndexFile() {
+        return commitIndexFile;
+    }
+
+    /**
+     * See {@link #getCommitIndexFile()}
+     */
+    public void setCommitIndexFile(File commitIndexFile) {
+        this.commitIndexFile = commitIndexFile;
+    }
+
     @TaskAction
     public void generateReleaseNotes() {
         ReleaseNotesGenerator generator = ReleaseNotesGenerators.releaseNotesGenerator(
-                gitWorkDir, gitHubApiUrl, gitHubRepository, gitHubReadOnlyAuthToken, new IgnoredCommit(ignoreCommitsContaining));
+                gitWorkDir, gitHubApiUrl, gitHubRepository, gitHubReadOnlyAuthToken, new IgnoredCommit(ignoreCommitsContaining), useGraphQL, useJGit,
+                commitIndexFile);
 
         List<String> targetVersions = previousVersion == null ? new ArrayList<String>() : asList(previousVersion);
         Collection<ReleaseNotesData> releaseNotes = generator.generateReleaseNotesData(
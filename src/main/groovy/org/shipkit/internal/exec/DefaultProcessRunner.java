@@ -9,6 +9,7 @@ import org.shipkit.internal.notes.util.ReleaseNotesException;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.List;
 
@@ -83,6 +84,40 @@ public class DefaultProcessRunner implements ProcessRunner {
         return result;
     }
 
+    public void run(ProcessOutputHandler handler, List<String> commandLine) {
+        // WARNING!!! ensure that masked command line is used for all logging!!!
+        String maskedCommandLine = mask(join(commandLine, " "));
+        LOG.lifecycle("  Executing:\n    " + maskedCommandLine);
+
+        int exitValue;
+        ErrorOutputReader errorOutput;
+        try {
+            Process process = new ProcessBuilder(commandLine).directory(workDir).start();
+            //error output needs to be drained, otherwise the process may block when the buffer is full
+            errorOutput = new ErrorOutputReader(process.getErrorStream());
+            errorOutput.start();
+            InputStream output = process.getInputStream();
+            try {
+                handler.handleOutput(output);
+            } catch (IOException e) {
+                process.destroy();
+                throw e;
+            } finally {
+                IOUtil.close(output);
+            }
+            exitValue = process.waitFor();
+            errorOutput.join();
+        } catch (Exception e) {
+            throw new ReleaseNotesException("Problems executing command:\n  " + maskedCommandLine, e);
+        }
+
+        if (exitValue != 0) {
+            throw new GradleException("Execution of command failed (exit code " + exitValue + "):\n" +
+                    "  " + maskedCommandLine + "\n" +
+                    "  Captured error output:\n" + mask(errorOutput.getOutput()));
+        }
+    }
+
     private String mask(String text) {
         if (secretValue == null) {
             return text;
@@ -131,6 +166,29 @@ public class DefaultProcessRunner implements ProcessRunner {
         return this;
     }
 
+    private static class ErrorOutputReader extends Thread {
+        private final InputStream stream;
+        private volatile String output = "";
+
+        ErrorOutputReader(InputStream stream) {
+            super("process-error-output");
+            this.stream = stream;
+            setDaemon(true);
+        }
+
+        public void run() {
+            try {
+                output = readFully(new BufferedReader(new InputStreamReader(stream)));
+            } catch (IOException e) {
+                output = "(unable to read error output: " + e.getMessage() + ")";
+            }
+        }
+
+        String getOutput() {
+            return output;
+        }
+    }
+
     private static class ProcessResult {
         private final String output;
         private final Process process;
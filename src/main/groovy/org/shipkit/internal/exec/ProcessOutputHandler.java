@@ -0,0 +1,16 @@
+package org.shipkit.internal.exec;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Consumes the standard output of a process while the process is running,
+ * see {@link ProcessRunner#run(ProcessOutputHandler, java.util.List)}
+ */
+public interface ProcessOutputHandler {
+
+    /**
+     * Reads the standard output of the process. The stream is closed by the runner.
+     */
+    void handleOutput(InputStream output) throws IOException;
+}
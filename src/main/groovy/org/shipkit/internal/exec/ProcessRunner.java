@@ -22,4 +22,14 @@ public interface ProcessRunner {
      * @return combined error and standard output.
      */
     String run(List<String> commandLine);
+
+    /**
+     * Executes given command line and passes the standard output to the handler as the process produces it.
+     * Unlike {@link #run(List)}, the output is not buffered in memory so it is suitable for large outputs.
+     * Error output is not passed to the handler, it is reported when the command fails.
+     *
+     * @param handler consumes the standard output
+     * @param commandLine the full command line to execute
+     */
+    void run(ProcessOutputHandler handler, List<String> commandLine);
 }
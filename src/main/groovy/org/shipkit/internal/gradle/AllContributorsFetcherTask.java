@@ -1,19 +1,25 @@
 package org.shipkit.internal.gradle;
 
 import org.gradle.api.DefaultTask;
+import org.gradle.api.Task;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
+import org.gradle.api.specs.Spec;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.OutputFile;
 import org.gradle.api.tasks.TaskAction;
 import org.shipkit.gradle.ReleaseConfiguration;
 import org.shipkit.internal.notes.contributors.AllContributorsSerializer;
+import org.shipkit.internal.notes.contributors.AllContributorsSyncState;
 import org.shipkit.internal.notes.contributors.Contributors;
 import org.shipkit.internal.notes.contributors.GitHubContributorsProvider;
 import org.shipkit.internal.notes.contributors.ProjectContributorsSet;
+import org.shipkit.internal.notes.util.GitHubTransports;
 import org.shipkit.internal.notes.util.IOUtil;
 
 import java.io.File;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Fetch data about all project contributors and store it in file.
@@ -31,6 +37,23 @@ public class AllContributorsFetcherTask extends DefaultTask {
 
     @OutputFile private File outputFile;
 
+    private int nameCacheTtlHours = 7 * 24;
+    private boolean useGraphQL;
+    private int userProfileConcurrency = 4;
+    private boolean fullSync;
+    private int fullSyncMaxAgeHours = 7 * 24;
+    private int maxAgeHours = 24;
+    private boolean forceRefresh;
+
+    public AllContributorsFetcherTask() {
+        //contributors don't change often, no need to hit GitHub API in every build
+        getOutputs().upToDateWhen(new Spec<Task>() {
+            public boolean isSatisfiedBy(Task task) {
+                return !forceRefresh && !fullSync && !GitHubTransports.isUsingFixtures() && isOutputFresh(System.currentTimeMillis());
+            }
+        });
+    }
+
     /**
      * See {@link ReleaseConfiguration.GitHub#getApiUrl()}
      */
@@ -87,17 +110,155 @@ public class AllContributorsFetcherTask extends DefaultTask {
         this.outputFile = outputFile;
     }
 
+    /**
+     * How long the names of contributors are cached on disk, in hours, by default one week.
+     * GitHub 'contributors' endpoint does not return names, so every name needs a separate request to GitHub.
+     * Names don't change often so only new contributors and expired names are fetched.
+     * Use 0 to disable the cache.
+     */
+    public int getNameCacheTtlHours() {
+        return nameCacheTtlHours;
+    }
+
+    /**
+     * See {@link #getNameCacheTtlHours()}
+     */
+    public void setNameCacheTtlHours(int nameCacheTtlHours) {
+        this.nameCacheTtlHours = nameCacheTtlHours;
+    }
+
+    /**
+     * Max number of contributor profiles (needed for the names) fetched from GitHub in parallel, by default 4.
+     * Not used when {@link #isUseGraphQL()}, GraphQL API resolves names of the whole page with one request.
+     */
+    public int getUserProfileConcurrency() {
+        return userProfileConcurrency;
+    }
+
+    /**
+     * See {@link #getUserProfileConcurrency()}
+     */
+    public void setUserProfileConcurrency(int userProfileConcurrency) {
+        this.userProfileConcurrency = userProfileConcurrency;
+    }
+
+    /**
+     * See {@link ReleaseConfiguration.GitHub#isUseGraphQL()}
+     */
+    public boolean isUseGraphQL() {
+        return useGraphQL;
+    }
+
+    /**
+     * See {@link #isUseGraphQL()}
+     */
+    public void setUseGraphQL(boolean useGraphQL) {
+        this.useGraphQL = useGraphQL;
+    }
+
+    /**
+     * Whether all contributors should be fetched from scratch, instead of updating previously fetched contributors
+     * with the commits made since the last fetch.
+     * Configured with '-P{@value ContributorsPlugin#FULL_SYNC_PROPERTY}' project property.
+     */
+    public boolean isFullSync() {
+        return fullSync;
+    }
+
+    /**
+     * See {@link #isFullSync()}
+     */
+    public void setFullSync(boolean fullSync) {
+        this.fullSync = fullSync;
+    }
+
+    /**
+     * How old (in hours) the contributors fetched from scratch can be, by default one week.
+     * Until then, previously fetched contributors are updated with the commits made since the last fetch.
+     * Incremental updates can drift from GitHub data, for example when commits were pushed with older dates
+     * or the author changed the name, the full fetch fixes that.
+     */
+    public int getFullSyncMaxAgeHours() {
+        return fullSyncMaxAgeHours;
+    }
+
+    /**
+     * See {@link #getFullSyncMaxAgeHours()}
+     */
+    public void setFullSyncMaxAgeHours(int fullSyncMaxAgeHours) {
+        this.fullSyncMaxAgeHours = fullSyncMaxAgeHours;
+    }
+
+    /**
+     * How old (in hours) the fetched contributors can be before they are fetched again, by default 24 hours.
+     * Until then, the task is up-to-date and does not use GitHub API, so that regular builds can work offline.
+     * See also {@link #isForceRefresh()}.
+     */
+    public int getMaxAgeHours() {
+        return maxAgeHours;
+    }
+
+    /**
+     * See {@link #getMaxAgeHours()}
+     */
+    public void setMaxAgeHours(int maxAgeHours) {
+        this.maxAgeHours = maxAgeHours;
+    }
+
+    /**
+     * Whether the contributors should be fetched regardless of {@link #getMaxAgeHours()}.
+     * Release builds force the refresh so that published poms have up-to-date contributors.
+     */
+    public boolean isForceRefresh() {
+        return forceRefresh;
+    }
+
+    /**
+     * See {@link #isForceRefresh()}
+     */
+    public void setForceRefresh(boolean forceRefresh) {
+        this.forceRefresh = forceRefresh;
+    }
+
     @TaskAction
     public void fetchContributors() {
-        LOG.lifecycle("  Fetching all contributors for project");
+        GitHubContributorsProvider contributorsProvider = Contributors.getGitHubContributorsProvider(apiUrl, repository, readOnlyAuthToken,
+                TimeUnit.HOURS.toMillis(nameCacheTtlHours), useGraphQL, userProfileConcurrency);
+        AllContributorsSerializer serializer = new AllContributorsSerializer();
+        File stateFile = AllContributorsSyncState.getStateFile(outputFile);
+        AllContributorsSyncState state = AllContributorsSyncState.read(stateFile);
+        Date now = new Date();
 
-        GitHubContributorsProvider contributorsProvider = Contributors.getGitHubContributorsProvider(apiUrl, repository, readOnlyAuthToken);
-        ProjectContributorsSet contributors = contributorsProvider.getAllContributorsForProject();
+        ProjectContributorsSet contributors;
+        if (isIncrementalSyncPossible(state, now)) {
+            LOG.lifecycle("  Fetching contributions made since {}", state.getLastSync());
+            ProjectContributorsSet previous = serializer.deserialize(IOUtil.readFully(outputFile));
+            contributors = contributorsProvider.syncContributorsForProject(previous, state.getLastSync());
+            state = new AllContributorsSyncState(now, state.getLastFullSync());
+        } else {
+            LOG.lifecycle("  Fetching all contributors for project");
+            contributors = contributorsProvider.getAllContributorsForProject();
+            state = new AllContributorsSyncState(now, now);
+        }
 
-        AllContributorsSerializer serializer = new AllContributorsSerializer();
         final String json = serializer.serialize(contributors);
         IOUtil.writeFile(outputFile, json);
+        state.write(stateFile);
 
         LOG.lifecycle("  Serialized all contributors into: {}", getProject().relativePath(outputFile));
     }
+
+    boolean isOutputFresh(long now) {
+        return outputFile != null && outputFile.isFile()
+                && now - outputFile.lastModified() < TimeUnit.HOURS.toMillis(maxAgeHours);
+    }
+
+    private boolean isIncrementalSyncPossible(AllContributorsSyncState state, Date now) {
+        //recorded GitHub API exchanges must not depend on the state left by previous builds
+        if (fullSync || GitHubTransports.isUsingFixtures() || state == null || !outputFile.isFile()) {
+            return false;
+        }
+        long age = now.getTime() - state.getLastFullSync().getTime();
+        return age < TimeUnit.HOURS.toMillis(fullSyncMaxAgeHours);
+    }
 }
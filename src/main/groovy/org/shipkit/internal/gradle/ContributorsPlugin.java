@@ -4,6 +4,7 @@ import org.gradle.api.Action;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
 import org.shipkit.gradle.ReleaseConfiguration;
+import org.shipkit.internal.gradle.util.GitHubBuildService;
 import org.shipkit.internal.gradle.util.TaskMaker;
 
 import static org.shipkit.internal.gradle.util.BuildConventions.contributorsFile;
@@ -19,8 +20,15 @@ public class ContributorsPlugin implements Plugin<Project> {
 
     public final static String FETCH_ALL_CONTRIBUTORS_TASK = "fetchAllContributors";
 
+    /**
+     * Project property that makes {@link AllContributorsFetcherTask} fetch all contributors from scratch.
+     * '-Pshipkit.contributors.fullSync' or '-Pshipkit.contributors.fullSync=true' turns it on, any other value turns it off.
+     */
+    public final static String FULL_SYNC_PROPERTY = "shipkit.contributors.fullSync";
+
     public void apply(final Project project) {
         final ReleaseConfiguration conf = project.getPlugins().apply(ReleaseConfigurationPlugin.class).getConfiguration();
+        GitHubBuildService.register(project);
         fetchAllTask(project, conf);
     }
 
@@ -34,11 +42,22 @@ public class ContributorsPlugin implements Plugin<Project> {
                 task.setApiUrl(conf.getGitHub().getApiUrl());
                 task.setReadOnlyAuthToken(conf.getGitHub().getReadOnlyAuthToken());
                 task.setRepository(conf.getGitHub().getRepository());
+                task.setUseGraphQL(conf.getGitHub().isUseGraphQL());
+                task.setFullSync(isFullSync(project));
                 task.setEnabled(conf.getTeam().getContributors().isEmpty());
             }
         });
 
     }
+
+    private static boolean isFullSync(Project project) {
+        if (!project.hasProperty(FULL_SYNC_PROPERTY)) {
+            return false;
+        }
+        //'-Pshipkit.contributors.fullSync' without the value is an empty String
+        Object value = project.getProperties().get(FULL_SYNC_PROPERTY);
+        return value == null || "".equals(value) || "true".equals(value);
+    }
 }
 
 
@@ -6,6 +6,7 @@ import org.gradle.api.Project;
 import org.shipkit.gradle.UpdateReleaseNotesTask;
 import org.shipkit.gradle.ReleaseConfiguration;
 import org.shipkit.gradle.ReleaseNotesFetcherTask;
+import org.shipkit.internal.gradle.util.GitHubBuildService;
 import org.shipkit.internal.gradle.util.TaskMaker;
 import org.shipkit.internal.version.VersionInfo;
 
@@ -31,6 +32,7 @@ public class ReleaseNotesPlugin implements Plugin<Project> {
 
     public void apply(final Project project) {
         final ReleaseConfiguration conf = project.getPlugins().apply(ReleaseConfigurationPlugin.class).getConfiguration();
+        GitHubBuildService.register(project);
         project.getPlugins().apply(VersioningPlugin.class);
         project.getPlugins().apply(ContributorsPlugin.class);
 
@@ -42,9 +44,12 @@ public class ReleaseNotesPlugin implements Plugin<Project> {
             public void execute(final ReleaseNotesFetcherTask t) {
                 t.setDescription("Fetches release notes data from Git and GitHub and serializes them to a file");
                 t.setOutputFile(new File(project.getBuildDir(), "detailed-release-notes.ser"));
+                t.setCommitIndexFile(new File(project.getBuildDir(), "shipkit/commit-index.json"));
                 t.setGitHubApiUrl(conf.getGitHub().getApiUrl());
                 t.setGitHubReadOnlyAuthToken(conf.getGitHub().getReadOnlyAuthToken());
                 t.setGitHubRepository(conf.getGitHub().getRepository());
+                t.setUseGraphQL(conf.getGitHub().isUseGraphQL());
+                t.setUseJGit(conf.getGit().isUseJGit());
                 t.setPreviousVersion(conf.getPreviousReleaseVersion());
                 t.setIgnoreCommitsContaining(conf.getReleaseNotes().getIgnoreCommitsContaining());
             }
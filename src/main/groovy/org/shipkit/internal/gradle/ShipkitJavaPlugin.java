@@ -89,6 +89,14 @@ public class ShipkitJavaPlugin implements Plugin<Project> {
 
                 project.getTasks().getByName(GitPlugin.PERFORM_GIT_COMMIT_CLEANUP_TASK).mustRunAfter(t);
                 project.getTasks().getByName(GitPlugin.TAG_CLEANUP_TASK).mustRunAfter(t);
+
+                //regular builds can use contributors fetched earlier, released poms need up-to-date contributors
+                lazyConfiguration(t, new Runnable() {
+                    public void run() {
+                        AllContributorsFetcherTask fetcher = (AllContributorsFetcherTask) project.getTasks().getByName(FETCH_ALL_CONTRIBUTORS_TASK);
+                        fetcher.setForceRefresh(true);
+                    }
+                });
             }
         });
 
@@ -0,0 +1,104 @@
+package org.shipkit.internal.gradle.util;
+
+import org.gradle.BuildAdapter;
+import org.gradle.BuildResult;
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.shipkit.internal.notes.util.GitHubTransports;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Build scoped service shared by all Shipkit tasks that talk to GitHub.
+ * While the build runs, GitHub responses are remembered so that the tasks (fetchReleaseNotes, fetchAllContributors)
+ * never fetch the same resource twice, see {@link GitHubTransports#beginBuild()}.
+ * The remembered responses are discarded when the build finishes.
+ * <p>
+ * When the build finishes, metrics of GitHub API requests are written to 'build/shipkit' directory
+ * of the root project, see {@link org.shipkit.internal.notes.util.GitHubRequestMetrics#writeReport(File)}.
+ * <p>
+ * GitHub API exchanges can be recorded into a fixture directory with '-P{@value #RECORD_PROPERTY}=dir'
+ * and replayed without network access with '-P{@value #REPLAY_PROPERTY}=dir'.
+ * <p>
+ * There is a single service per build, hooked up to the root project, see {@link #register(Project)}.
+ */
+public class GitHubBuildService {
+
+    /**
+     * Project property with the directory to record GitHub API exchanges to
+     */
+    public final static String RECORD_PROPERTY = "shipkit.github.record";
+
+    /**
+     * Project property with the directory to replay recorded GitHub API exchanges from
+     */
+    public final static String REPLAY_PROPERTY = "shipkit.github.replay";
+
+    private static final Logger LOG = Logging.getLogger(GitHubBuildService.class);
+
+    private final Project rootProject;
+
+    private final BuildAdapter listener = new BuildAdapter() {
+        public void buildFinished(BuildResult result) {
+            writeMetrics();
+            GitHubTransports.endBuild();
+        }
+    };
+
+    private GitHubBuildService(Project rootProject) {
+        this.rootProject = rootProject;
+    }
+
+    /**
+     * Directory with the GitHub API metrics reports
+     */
+    public File getReportDir() {
+        return new File(rootProject.getBuildDir(), "shipkit");
+    }
+
+    private void writeMetrics() {
+        File dir = getReportDir();
+        try {
+            GitHubTransports.getMetrics().writeReport(dir);
+        } catch (IOException e) {
+            LOG.warn("Unable to write GitHub API metrics to: {}", dir, e);
+        }
+    }
+
+    /**
+     * Registers the service for the build of given project, it is safe to call it many times
+     */
+    public static GitHubBuildService register(Project project) {
+        Project rootProject = project.getRootProject();
+        GitHubBuildService service = rootProject.getExtensions().findByType(GitHubBuildService.class);
+        if (service == null) {
+            service = new GitHubBuildService(rootProject);
+            rootProject.getExtensions().add(GitHubBuildService.class.getName(), service);
+            rootProject.getGradle().addListener(service.listener);
+            GitHubTransports.beginBuild();
+            configureFixtures(rootProject);
+        }
+        return service;
+    }
+
+    private static void configureFixtures(Project rootProject) {
+        boolean record = rootProject.hasProperty(RECORD_PROPERTY);
+        boolean replay = rootProject.hasProperty(REPLAY_PROPERTY);
+        if (record && replay) {
+            throw new GradleException("Cannot record and replay GitHub API exchanges in the same build.\n" +
+                    "  Please use only one of the project properties: '" + RECORD_PROPERTY + "', '" + REPLAY_PROPERTY + "'");
+        }
+        if (record) {
+            File dir = rootProject.file(rootProject.property(RECORD_PROPERTY));
+            LOG.lifecycle("  Recording GitHub API exchanges to: {}", dir);
+            GitHubTransports.recordFixtures(dir);
+        } else if (replay) {
+            File dir = rootProject.file(rootProject.property(REPLAY_PROPERTY));
+            LOG.lifecycle("  Replaying GitHub API exchanges from: {}", dir);
+            GitHubTransports.replayFixtures(dir);
+        }
+    }
+}
@@ -5,13 +5,16 @@ import org.gradle.api.logging.Logging;
 import org.json.simple.DeserializationException;
 import org.json.simple.JsonObject;
 import org.shipkit.internal.notes.model.ProjectContributor;
+import org.shipkit.internal.notes.util.DaemonThreadFactory;
 import org.shipkit.internal.notes.util.GitHubListFetcher;
 import org.shipkit.internal.notes.util.GitHubObjectFetcher;
+import org.shipkit.internal.notes.util.GitHubTransport;
+import org.shipkit.internal.notes.util.GitHubTransports;
 
 import java.io.IOException;
-import java.util.HashSet;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.*;
 
 /**
  * Gets all contributors from the repository
@@ -21,36 +24,98 @@ class AllContributorsFetcher {
 
     private static final Logger LOG = Logging.getLogger(AllContributorsFetcher.class);
 
+    /**
+     * Default number of user profiles fetched in parallel while the pages of contributors are being listed.
+     * Profiles that are not in the name cache cost one request each, for a new project that is one request per contributor.
+     */
+    static final int DEFAULT_CONCURRENCY = 4;
+
+    private final ContributorNameCache nameCache;
+    private final int concurrency;
+    private final GitHubTransport transport;
+
+    AllContributorsFetcher(ContributorNameCache nameCache) {
+        this(nameCache, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * @param concurrency max number of user profiles fetched in parallel
+     */
+    AllContributorsFetcher(ContributorNameCache nameCache, int concurrency) {
+        this(nameCache, concurrency, GitHubTransports.getDefault());
+    }
+
+    AllContributorsFetcher(ContributorNameCache nameCache, int concurrency, GitHubTransport transport) {
+        this.nameCache = nameCache;
+        this.concurrency = concurrency;
+        this.transport = transport;
+    }
+
     ProjectContributorsSet fetchAllContributorsForProject(String apiUrl, String repository, String readOnlyAuthToken) {
         LOG.lifecycle("  Querying GitHub API for all contributors for project");
         ProjectContributorsSet result = new DefaultProjectContributorsSet();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, new DaemonThreadFactory("shipkit-github-user"));
 
         try {
             GitHubProjectContributors contributors =
-                    GitHubProjectContributors.authenticatingWith(apiUrl, repository, readOnlyAuthToken).build();
+                    GitHubProjectContributors.authenticatingWith(apiUrl, repository, readOnlyAuthToken).build(transport);
 
+            //user profiles are fetched in the background while we are fetching the next page of contributors
+            List<Future<ProjectContributor>> resolved = new ArrayList<Future<ProjectContributor>>();
             while(contributors.hasNextPage()) {
                 List<JsonObject> page = contributors.nextPage();
-                result.addAllContributors(extractContributors(page, readOnlyAuthToken));
+                for (JsonObject contributor : page) {
+                    resolved.add(resolveContributor(contributor, readOnlyAuthToken, executor));
+                }
+            }
+
+            //adding in the order returned by GitHub, the same as if profiles were fetched one by one
+            for (Future<ProjectContributor> contributor : resolved) {
+                result.addContributor(getResolved(contributor));
             }
         } catch (Exception e) {
             throw new RuntimeException("Problems fetching and parsing contributors from GitHub repo: '" + repository
                     + "', using read only token: 'readOnlyAuthToken'", e);
+        } finally {
+            executor.shutdownNow();
+            nameCache.save();
         }
         return result;
     }
 
-    private Set<ProjectContributor> extractContributors(List<JsonObject> page, String readOnlyAuthToken) throws IOException, DeserializationException {
-        Set<ProjectContributor> result = new HashSet<ProjectContributor>();
-        for (JsonObject contributor : page) {
-            //Since returned contributor does not have 'name' element, we need to fetch the user data to get his name
-            //TODO add static caching of this. Names don't change that often, let's just cache this forever in build cache.
-            String url = (String) contributor.get("url");
-            GitHubObjectFetcher userFetcher = new GitHubObjectFetcher(url, readOnlyAuthToken);
-            JsonObject user = userFetcher.getPage();
-            result.add(GitHubAllContributorsJson.toContributor(contributor, user));
+    private Future<ProjectContributor> resolveContributor(final JsonObject contributor, final String readOnlyAuthToken,
+                                                          ExecutorService executor) {
+        final String login = (String) contributor.get("login");
+        final String cachedName = nameCache.getName(login);
+        if (cachedName != null) {
+            FutureTask<ProjectContributor> cached = new FutureTask<ProjectContributor>(new Callable<ProjectContributor>() {
+                public ProjectContributor call() {
+                    return GitHubAllContributorsJson.toContributor(contributor, cachedName);
+                }
+            });
+            cached.run();
+            return cached;
+        }
+        return executor.submit(new Callable<ProjectContributor>() {
+            public ProjectContributor call() throws Exception {
+                //Since returned contributor does not have 'name' element, we need to fetch the user data to get his name
+                String url = (String) contributor.get("url");
+                GitHubObjectFetcher userFetcher = new GitHubObjectFetcher(url, readOnlyAuthToken, transport);
+                JsonObject user = userFetcher.getPage();
+                String name = user.getString("name");
+                nameCache.putName(login, name == null ? "" : name);
+                return GitHubAllContributorsJson.toContributor(contributor, name);
+            }
+        });
+    }
+
+    private static ProjectContributor getResolved(Future<ProjectContributor> contributor) throws Exception {
+        try {
+            return contributor.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
         }
-        return result;
     }
 
     private static class GitHubProjectContributors {
@@ -61,8 +126,8 @@ class AllContributorsFetcher {
             return new GitHubProjectContributorsBuilder(apiUrl, repository, readOnlyAuthToken);
         }
 
-        private GitHubProjectContributors(String nextPageUrl) {
-            fetcher = new GitHubListFetcher(nextPageUrl);
+        private GitHubProjectContributors(String nextPageUrl, GitHubTransport transport) {
+            fetcher = new GitHubListFetcher(nextPageUrl, GitHubListFetcher.DEFAULT_CONCURRENCY, null, transport);
         }
 
         public boolean hasNextPage() {
@@ -87,12 +152,12 @@ class AllContributorsFetcher {
             this.readOnlyAuthToken = readOnlyAuthToken;
         }
 
-        GitHubProjectContributors build() {
+        GitHubProjectContributors build(GitHubTransport transport) {
             // see API doc: https://developer.github.com/v3/repos/#list-contributors
             String nextPageUrl = apiUrl + "/repos/" + repository + "/contributors" +
                     "?access_token=" + readOnlyAuthToken +
                     "&per_page=100";
-            return new GitHubProjectContributors(nextPageUrl);
+            return new GitHubProjectContributors(nextPageUrl, transport);
         }
     }
 }
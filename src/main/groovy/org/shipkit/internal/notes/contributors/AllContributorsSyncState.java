@@ -0,0 +1,74 @@
+package org.shipkit.internal.notes.contributors;
+
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.json.simple.JsonObject;
+import org.json.simple.Jsoner;
+import org.shipkit.internal.notes.util.IOUtil;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Remembers when all contributors were fetched, it is stored next to the serialized contributors.
+ * Enables incremental updates of the contributors, see {@link GitHubContributorsProvider#syncContributorsForProject}.
+ */
+public class AllContributorsSyncState {
+
+    private static final Logger LOG = Logging.getLogger(AllContributorsSyncState.class);
+
+    private final Date lastSync;
+    private final Date lastFullSync;
+
+    public AllContributorsSyncState(Date lastSync, Date lastFullSync) {
+        this.lastSync = lastSync;
+        this.lastFullSync = lastFullSync;
+    }
+
+    /**
+     * File with the sync state for given file with serialized contributors
+     */
+    public static File getStateFile(File contributorsFile) {
+        return new File(contributorsFile.getParentFile(), contributorsFile.getName() + ".sync");
+    }
+
+    /**
+     * Reads the sync state, returns null if the file does not exist or cannot be read
+     */
+    public static AllContributorsSyncState read(File stateFile) {
+        if (!stateFile.isFile()) {
+            return null;
+        }
+        try {
+            JsonObject json = (JsonObject) Jsoner.deserialize(IOUtil.readFully(stateFile));
+            return new AllContributorsSyncState(
+                    new Date(((BigDecimal) json.get("lastSync")).longValue()),
+                    new Date(((BigDecimal) json.get("lastFullSync")).longValue()));
+        } catch (Exception e) {
+            LOG.info("Unable to read contributors sync state from {}, all contributors will be fetched", stateFile, e);
+            return null;
+        }
+    }
+
+    public void write(File stateFile) {
+        JsonObject json = new JsonObject();
+        json.put("lastSync", lastSync.getTime());
+        json.put("lastFullSync", lastFullSync.getTime());
+        IOUtil.writeFile(stateFile, Jsoner.serialize(json));
+    }
+
+    /**
+     * When contributors were last updated, either fully or incrementally
+     */
+    public Date getLastSync() {
+        return lastSync;
+    }
+
+    /**
+     * When all contributors were last fetched from scratch
+     */
+    public Date getLastFullSync() {
+        return lastFullSync;
+    }
+}
@@ -0,0 +1,127 @@
+package org.shipkit.internal.notes.contributors;
+
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.json.simple.JsonObject;
+import org.json.simple.Jsoner;
+import org.shipkit.internal.notes.util.GitHubTransports;
+import org.shipkit.internal.notes.util.IOUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Caches display names of GitHub users (login -> name) on disk, so that we don't have to
+ * fetch the profile of every contributor each time we generate the list of all contributors.
+ * Names don't change often, entries older than the time to live are fetched again.
+ * <p>
+ * The cache lives in the Gradle user home, so that it is reused by all builds on the machine.
+ * It is safe to use from multiple threads.
+ */
+class ContributorNameCache {
+
+    private static final Logger LOG = Logging.getLogger(ContributorNameCache.class);
+
+    /**
+     * Default time to live of cached names, one week
+     */
+    static final long DEFAULT_TTL_MILLIS = 7L * 24 * 60 * 60 * 1000;
+
+    private final File file;
+    private final long ttlMillis;
+    private final Map<String, CachedName> names = new TreeMap<String, CachedName>();
+    private boolean modified;
+
+    ContributorNameCache(File file, long ttlMillis) {
+        this.file = file;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Cache file for given GitHub instance, user names are the same for all repositories
+     */
+    static File getCacheFile(String apiUrl) {
+        String name = apiUrl.replaceFirst("^https?://", "").replaceAll("[^A-Za-z0-9._-]", "_");
+        return new File(GitHubTransports.getShipkitCacheDir(), "github-users/" + name + ".json");
+    }
+
+    /**
+     * Loads the cache from file. Missing or unreadable file results in an empty cache.
+     *
+     * @param ttlMillis time to live of the cached names, 0 means that names are never taken from the cache
+     */
+    static ContributorNameCache load(File file, long ttlMillis) {
+        ContributorNameCache cache = new ContributorNameCache(file, ttlMillis);
+        if (ttlMillis <= 0 || !file.isFile()) {
+            return cache;
+        }
+        try {
+            JsonObject json = (JsonObject) Jsoner.deserialize(IOUtil.readFully(file));
+            for (Map.Entry<String, Object> e : json.entrySet()) {
+                JsonObject entry = (JsonObject) e.getValue();
+                cache.names.put(e.getKey(), new CachedName((String) entry.get("name"), ((BigDecimal) entry.get("fetchedAt")).longValue()));
+            }
+            LOG.info("Loaded {} cached user names from {}", cache.names.size(), file);
+        } catch (Exception e) {
+            LOG.warn("Unable to read user names cache {}, user profiles will be fetched from GitHub again", file, e);
+            cache.names.clear();
+        }
+        return cache;
+    }
+
+    /**
+     * Returns cached name of the user or null if the name is not cached or expired.
+     * Empty String means that the user has no name in the profile.
+     */
+    synchronized String getName(String login) {
+        CachedName cached = names.get(login);
+        if (cached == null || currentTimeMillis() - cached.fetchedAt > ttlMillis) {
+            return null;
+        }
+        return cached.name;
+    }
+
+    synchronized void putName(String login, String name) {
+        names.put(login, new CachedName(name, currentTimeMillis()));
+        modified = true;
+    }
+
+    /**
+     * Saves the cache to file if it was modified. Failure to save is not fatal, the names will be fetched again next time.
+     */
+    synchronized void save() {
+        if (!modified || ttlMillis <= 0) {
+            return;
+        }
+        JsonObject json = new JsonObject();
+        for (Map.Entry<String, CachedName> e : names.entrySet()) {
+            JsonObject entry = new JsonObject();
+            entry.put("name", e.getValue().name);
+            entry.put("fetchedAt", e.getValue().fetchedAt);
+            json.put(e.getKey(), entry);
+        }
+        try {
+            IOUtil.writeFileAtomically(file, Jsoner.serialize(json).getBytes("UTF-8"));
+            modified = false;
+        } catch (IOException e) {
+            LOG.warn("Unable to save user names cache {}", file, e);
+        }
+    }
+
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private static class CachedName {
+        private final String name;
+        private final long fetchedAt;
+
+        CachedName(String name, long fetchedAt) {
+            this.name = name;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+}
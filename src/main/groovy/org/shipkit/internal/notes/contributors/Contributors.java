@@ -15,7 +15,38 @@ public class Contributors {
      * @param readOnlyAuthToken the GitHub auth token
      */
     public static GitHubContributorsProvider getGitHubContributorsProvider(String apiUrl, String repository, String readOnlyAuthToken) {
-        return new GitHubContributorsProvider(apiUrl, repository, readOnlyAuthToken);
+        return getGitHubContributorsProvider(apiUrl, repository, readOnlyAuthToken, ContributorNameCache.DEFAULT_TTL_MILLIS, false);
+    }
+
+    /**
+     * Fetches contributors from GitHub. Needs GitHub auth token.
+     *
+     * @param apiUrl address of GitHub api endpoint, for example: "https://api.github.com"
+     * @param repository name of GitHub repository, for example: "mockito/mockito"
+     * @param readOnlyAuthToken the GitHub auth token
+     * @param nameCacheTtlMillis how long the names of contributors are cached on disk, 0 disables the cache
+     * @param useGraphQL whether the names of contributors should be fetched using GitHub GraphQL API
+     */
+    public static GitHubContributorsProvider getGitHubContributorsProvider(String apiUrl, String repository, String readOnlyAuthToken,
+                                                                           long nameCacheTtlMillis, boolean useGraphQL) {
+        return new GitHubContributorsProvider(apiUrl, repository, readOnlyAuthToken, nameCacheTtlMillis, useGraphQL);
+    }
+
+    /**
+     * Fetches contributors from GitHub. Needs GitHub auth token.
+     *
+     * @param apiUrl address of GitHub api endpoint, for example: "https://api.github.com"
+     * @param repository name of GitHub repository, for example: "mockito/mockito"
+     * @param readOnlyAuthToken the GitHub auth token
+     * @param nameCacheTtlMillis how long the names of contributors are cached on disk, 0 disables the cache
+     * @param useGraphQL whether the names of contributors should be fetched using GitHub GraphQL API
+     * @param userProfileConcurrency max number of user profiles fetched in parallel (not used with GraphQL API)
+     */
+    public static GitHubContributorsProvider getGitHubContributorsProvider(String apiUrl, String repository, String readOnlyAuthToken,
+                                                                           long nameCacheTtlMillis, boolean useGraphQL,
+                                                                           int userProfileConcurrency) {
+        return new GitHubContributorsProvider(apiUrl, repository, readOnlyAuthToken, nameCacheTtlMillis, useGraphQL,
+                userProfileConcurrency);
     }
 
     /**
@@ -22,6 +22,19 @@ public class GitHubAllContributorsJson {
         return new DefaultProjectContributor(textOrEmpty(name), login, profileUrl, numberOfContributors);
     }
 
+    /**
+     * Parses GitHub JsonObject in accordance to the API, using user's name known upfront (for example cached)
+     * @param contributor Represent project contribution: https://developer.github.com/v3/repos/#list-contributors
+     * @param name user's name, nullable
+     * @return Contributor object based on project contribution
+     */
+    public static ProjectContributor toContributor(JsonObject contributor, String name) {
+        String login = contributor.getString("login");
+        String profileUrl = contributor.getString("html_url");
+        Integer numberOfContributors = contributor.getInteger("contributions");
+        return new DefaultProjectContributor(textOrEmpty(name), login, profileUrl, numberOfContributors);
+    }
+
     private static String textOrEmpty(String text) {
         return text != null ? text : "";
     }
@@ -1,19 +1,32 @@
 package org.shipkit.internal.notes.contributors;
 
 import org.shipkit.internal.notes.model.Contributor;
+import org.shipkit.internal.notes.model.ProjectContributor;
 
-import java.util.Collection;
+import java.util.*;
 
 public class GitHubContributorsProvider implements ContributorsProvider {
 
     private final String apiUrl;
     private final String repository;
     private final String readOnlyAuthToken;
+    private final long nameCacheTtlMillis;
+    private final boolean useGraphQL;
+    private final int userProfileConcurrency;
 
-    GitHubContributorsProvider(String apiUrl, String repository, String readOnlyAuthToken) {
+    GitHubContributorsProvider(String apiUrl, String repository, String readOnlyAuthToken, long nameCacheTtlMillis,
+                               boolean useGraphQL) {
+        this(apiUrl, repository, readOnlyAuthToken, nameCacheTtlMillis, useGraphQL, AllContributorsFetcher.DEFAULT_CONCURRENCY);
+    }
+
+    GitHubContributorsProvider(String apiUrl, String repository, String readOnlyAuthToken, long nameCacheTtlMillis,
+                               boolean useGraphQL, int userProfileConcurrency) {
         this.apiUrl = apiUrl;
         this.repository = repository;
         this.readOnlyAuthToken = readOnlyAuthToken;
+        this.nameCacheTtlMillis = nameCacheTtlMillis;
+        this.useGraphQL = useGraphQL;
+        this.userProfileConcurrency = userProfileConcurrency;
     }
 
     @Override
@@ -23,11 +36,45 @@ public class GitHubContributorsProvider implements ContributorsProvider {
 
     @Override
     public ProjectContributorsSet getAllContributorsForProject() {
-        ProjectContributorsSet contributors = new AllContributorsFetcher().fetchAllContributorsForProject(apiUrl, repository, readOnlyAuthToken);
+        ContributorNameCache nameCache = ContributorNameCache.load(ContributorNameCache.getCacheFile(apiUrl), nameCacheTtlMillis);
+        ProjectContributorsSet contributors = useGraphQL ?
+                new GitHubGraphQLContributorsFetcher(nameCache).fetchAllContributorsForProject(apiUrl, repository, readOnlyAuthToken) :
+                new AllContributorsFetcher(nameCache, userProfileConcurrency).fetchAllContributorsForProject(apiUrl, repository, readOnlyAuthToken);
         Collection<Contributor> recent = new RecentContributorsFetcher().fetchContributorsSinceYesterday(apiUrl, repository, readOnlyAuthToken);
         return mergeContributors(contributors, recent);
     }
 
+    /**
+     * Brings previously fetched contributors up to date, by adding the contributions (commits) made since given date.
+     * New contributors are added, existing contributors get their number of contributions increased.
+     *
+     * @param contributors contributors fetched previously
+     * @param since the date of the previous fetch
+     */
+    public ProjectContributorsSet syncContributorsForProject(ProjectContributorsSet contributors, Date since) {
+        Collection<ProjectContributor> recent = new RecentContributorsFetcher().fetchContributions(apiUrl, repository, readOnlyAuthToken, since);
+        return addContributions(contributors, recent);
+    }
+
+    static ProjectContributorsSet addContributions(ProjectContributorsSet contributors, Collection<ProjectContributor> recent) {
+        Map<String, ProjectContributor> byLogin = new LinkedHashMap<String, ProjectContributor>();
+        for (ProjectContributor c : contributors.getAllContributors()) {
+            byLogin.put(c.getLogin(), c);
+        }
+        for (ProjectContributor c : recent) {
+            ProjectContributor existing = byLogin.get(c.getLogin());
+            if (existing == null) {
+                byLogin.put(c.getLogin(), c);
+            } else {
+                byLogin.put(c.getLogin(), new DefaultProjectContributor(existing.getName(), existing.getLogin(), existing.getProfileUrl(),
+                        existing.getNumberOfContributions() + c.getNumberOfContributions()));
+            }
+        }
+        ProjectContributorsSet result = new DefaultProjectContributorsSet();
+        result.addAllContributors(byLogin.values());
+        return result;
+    }
+
     static ProjectContributorsSet mergeContributors(ProjectContributorsSet contributors, Collection<Contributor> recent) {
         for (Contributor c : recent) {
             //Create project contributor with single contribution
@@ -0,0 +1,109 @@
+package org.shipkit.internal.notes.contributors;
+
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.json.simple.JsonObject;
+import org.shipkit.internal.notes.util.GitHubGraphQL;
+import org.shipkit.internal.notes.util.GitHubListFetcher;
+import org.shipkit.internal.notes.util.GitHubTransport;
+import org.shipkit.internal.notes.util.GitHubTransports;
+
+import java.util.*;
+
+/**
+ * Gets all contributors from the repository, resolving names of the contributors with GitHub GraphQL API.
+ * <p>
+ * GraphQL API does not offer the list of repository contributors with the number of contributions,
+ * so the contributors are still listed using https://developer.github.com/v3/repos/#list-contributors.
+ * Instead of fetching the profile of every contributor, the names of all contributors on the page
+ * are resolved with a single GraphQL query (aliased 'user' queries). One page of 100 contributors costs 2 requests
+ * instead of 1 + 100.
+ */
+class GitHubGraphQLContributorsFetcher {
+
+    private static final Logger LOG = Logging.getLogger(GitHubGraphQLContributorsFetcher.class);
+
+    private final ContributorNameCache nameCache;
+    private final GitHubTransport transport;
+
+    GitHubGraphQLContributorsFetcher(ContributorNameCache nameCache) {
+        this(nameCache, GitHubTransports.getDefault());
+    }
+
+    GitHubGraphQLContributorsFetcher(ContributorNameCache nameCache, GitHubTransport transport) {
+        this.nameCache = nameCache;
+        this.transport = transport;
+    }
+
+    ProjectContributorsSet fetchAllContributorsForProject(String apiUrl, String repository, String readOnlyAuthToken) {
+        LOG.lifecycle("  Querying GitHub API for all contributors for project, using GraphQL API for names");
+        ProjectContributorsSet result = new DefaultProjectContributorsSet();
+        GitHubGraphQL graphQL = new GitHubGraphQL(apiUrl, readOnlyAuthToken, transport);
+
+        try {
+            // see API doc: https://developer.github.com/v3/repos/#list-contributors
+            String nextPageUrl = apiUrl + "/repos/" + repository + "/contributors" +
+                    "?access_token=" + readOnlyAuthToken +
+                    "&per_page=100";
+            GitHubListFetcher contributors = new GitHubListFetcher(nextPageUrl, GitHubListFetcher.DEFAULT_CONCURRENCY, null, transport);
+
+            while (contributors.hasNextPage()) {
+                List<JsonObject> page = contributors.nextPage();
+                Map<String, String> names = resolveNames(graphQL, page);
+                for (JsonObject contributor : page) {
+                    String name = names.get((String) contributor.get("login"));
+                    result.addContributor(GitHubAllContributorsJson.toContributor(contributor, name));
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Problems fetching and parsing contributors from GitHub repo: '" + repository
+                    + "', using read only token: 'readOnlyAuthToken'", e);
+        } finally {
+            nameCache.save();
+        }
+        return result;
+    }
+
+    /**
+     * Returns names of all contributors on the page (login -> name).
+     * Names that are not cached yet are queried and put to the cache.
+     */
+    private Map<String, String> resolveNames(GitHubGraphQL graphQL, List<JsonObject> page) throws Exception {
+        Map<String, String> names = new HashMap<String, String>();
+        List<String> logins = new ArrayList<String>();
+        for (JsonObject contributor : page) {
+            String login = (String) contributor.get("login");
+            String name = nameCache.getName(login);
+            if (name == null) {
+                logins.add(login);
+            } else {
+                names.put(login, name);
+            }
+        }
+        if (logins.isEmpty()) {
+            return names;
+        }
+        LOG.info("Querying GitHub GraphQL API for names of {} contributors", logins.size());
+        JsonObject data = graphQL.query(query(logins));
+        for (int i = 0; i < logins.size(); i++) {
+            JsonObject user = (JsonObject) data.get(alias(i));
+            //users that don't exist any more (or organizations) don't have names
+            String name = user == null ? null : (String) user.get("name");
+            names.put(logins.get(i), name);
+            nameCache.putName(logins.get(i), name == null ? "" : name);
+        }
+        return names;
+    }
+
+    static String query(List<String> logins) {
+        StringBuilder query = new StringBuilder("query {");
+        for (int i = 0; i < logins.size(); i++) {
+            query.append(" ").append(alias(i)).append(": user(login: \"").append(logins.get(i)).append("\") { login name }");
+        }
+        return query.append(" }").toString();
+    }
+
+    private static String alias(int index) {
+        return "u" + index;
+    }
+}
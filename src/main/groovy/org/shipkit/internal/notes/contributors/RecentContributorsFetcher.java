@@ -5,9 +5,12 @@ import org.gradle.api.logging.Logging;
 import org.json.simple.DeserializationException;
 import org.json.simple.JsonObject;
 import org.shipkit.internal.notes.model.Contributor;
+import org.shipkit.internal.notes.model.ProjectContributor;
 import org.shipkit.internal.notes.util.GitHubListFetcher;
 
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
 import java.util.*;
 
 import static org.shipkit.internal.util.ArgumentValidation.notNull;
@@ -56,6 +59,44 @@ class RecentContributorsFetcher {
         return contributors;
     }
 
+    /**
+     * Contributors that pushed commits to the repo since given date, with the number of commits of each contributor
+     * @param dateSince - must not be null, the since date
+     */
+    public Collection<ProjectContributor> fetchContributions(String apiUrl, String repository, String readOnlyAuthToken, Date dateSince) {
+        LOG.info("Querying GitHub API for commits since {} (for contributions)", dateSince);
+        Map<String, Contributor> contributors = new LinkedHashMap<String, Contributor>();
+        Map<String, Integer> counts = new HashMap<String, Integer>();
+
+        try {
+            GitHubCommits commits = GitHubCommits
+                    .with(apiUrl, repository, readOnlyAuthToken, dateSince, null)
+                    .build();
+
+            while(commits.hasNextPage()) {
+                for (JsonObject commit : commits.nextPage()) {
+                    Contributor contributor = GitHubCommitsJSON.toContributor(commit);
+                    if (contributor != null) {
+                        String login = contributor.getLogin();
+                        if (!contributors.containsKey(login)) {
+                            contributors.put(login, contributor);
+                            counts.put(login, 0);
+                        }
+                        counts.put(login, counts.get(login) + 1);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Problems fetching commits from GitHub", e);
+        }
+
+        List<ProjectContributor> result = new ArrayList<ProjectContributor>();
+        for (Contributor c : contributors.values()) {
+            result.add(new DefaultProjectContributor(c.getName(), c.getLogin(), c.getProfileUrl(), counts.get(c.getLogin())));
+        }
+        return result;
+    }
+
     private Set<Contributor> extractContributors(List<JsonObject> commits) {
         Set<Contributor> result = new HashSet<Contributor>();
         for (JsonObject commit : commits) {
@@ -109,11 +150,20 @@ class RecentContributorsFetcher {
                 // see API doc: https://developer.github.com/v3/repos/commits/#list-commits-on-a-repository
                 String nextPageUrl = apiUrl + "/repos/" + repository + "/commits"
                         + "?access_token=" + readOnlyAuthToken
-                        + "&since=" + forGitHub(dateSince)
-                        + ((dateUntil != null)? "&until=" + forGitHub(dateUntil) : "")
+                        + "&since=" + encode(forGitHub(dateSince))
+                        + ((dateUntil != null)? "&until=" + encode(forGitHub(dateUntil)) : "")
                         + "&page=1&per_page=100";
                 return new GitHubCommits(nextPageUrl);
             }
+
+            //the time zone offset contains '+' that would be decoded as space
+            private static String encode(String date) {
+                try {
+                    return URLEncoder.encode(date, "UTF-8");
+                } catch (UnsupportedEncodingException e) {
+                    throw new RuntimeException(e);
+                }
+            }
         }
     }
 }
@@ -47,6 +47,15 @@ class DefaultReleaseNotesGenerator implements ReleaseNotesGenerator {
 
         Collection<ReleasedVersion> versions = releasedVersionsProvider.getReleasedVersions(headVersion, new Date(), targetVersions, tagPrefix);
 
+        //all tags up-front, instead of fetching them one by one for every version
+        List<String> previousRevs = new LinkedList<String>();
+        for (ReleasedVersion v : versions) {
+            if (v.getPreviousRev() != null) {
+                previousRevs.add(v.getPreviousRev());
+            }
+        }
+        contributionsProvider.fetchTags(previousRevs);
+
         for (ReleasedVersion v : versions) {
             if (versions.size() > 1 && v.getPreviousRev() == null) {
                 continue;
@@ -54,7 +63,7 @@ class DefaultReleaseNotesGenerator implements ReleaseNotesGenerator {
             ContributionSet contributions = contributionsProvider.getContributionsBetween(v.getPreviousRev(), v.getRev());
             LOG.lifecycle("Retrieved " + contributions.getContributions().size() + " contribution(s) between " + v.getPreviousRev() + ".." + v.getRev());
 
-            Collection<Improvement> improvements = improvementsProvider.getImprovements(contributions, gitHubLabels, onlyPullRequests);
+            Collection<Improvement> improvements = improvementsProvider.getImprovements(contributions, gitHubLabels, onlyPullRequests, v.getPreviousDate());
             LOG.lifecycle("Retrieved " + improvements.size() + " improvement(s) for tickets: " + contributions.getAllTickets());
 
             out.add(new DefaultReleaseNotesData(v.getVersion(), v.getDate(), contributions, improvements, v.getPreviousRev(), v.getRev()));
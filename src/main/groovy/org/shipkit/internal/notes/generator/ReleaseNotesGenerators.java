@@ -24,10 +24,64 @@ public class ReleaseNotesGenerators {
      * @param ignoredCommit responsible decide if commits should not be included in release notes
      */
     public static ReleaseNotesGenerator releaseNotesGenerator(File workDir, String gitHubApiUrl, String gitHubRepository, String readOnlyAuthToken, Predicate<Commit> ignoredCommit) {
+        return releaseNotesGenerator(workDir, gitHubApiUrl, gitHubRepository, readOnlyAuthToken, ignoredCommit, false);
+    }
+
+    /**
+     * @param workDir the working directory where 'git' operations will be executed
+     * @param gitHubApiUrl GitHub API endpoint address, for example: https://api.github.com
+     * @param gitHubRepository GitHub gitHubRepository in format USER|COMPANY/REPO_NAME, for example: mockito/mockito
+     * @param readOnlyAuthToken read only auth token used to communicate with GitHub
+     * @param ignoredCommit responsible decide if commits should not be included in release notes
+     * @param useGraphQL whether tickets should be fetched using GitHub GraphQL API
+     */
+    public static ReleaseNotesGenerator releaseNotesGenerator(File workDir, String gitHubApiUrl, String gitHubRepository, String readOnlyAuthToken,
+                                                              Predicate<Commit> ignoredCommit, boolean useGraphQL) {
+        return releaseNotesGenerator(workDir, gitHubApiUrl, gitHubRepository, readOnlyAuthToken, ignoredCommit, useGraphQL, false);
+    }
+
+    /**
+     * @param workDir the working directory where 'git' operations will be executed
+     * @param gitHubApiUrl GitHub API endpoint address, for example: https://api.github.com
+     * @param gitHubRepository GitHub gitHubRepository in format USER|COMPANY/REPO_NAME, for example: mockito/mockito
+     * @param readOnlyAuthToken read only auth token used to communicate with GitHub
+     * @param ignoredCommit responsible decide if commits should not be included in release notes
+     * @param useGraphQL whether tickets should be fetched using GitHub GraphQL API
+     * @param useJGit whether the git repository should be read in-process with JGit instead of forking 'git'
+     */
+    public static ReleaseNotesGenerator releaseNotesGenerator(File workDir, String gitHubApiUrl, String gitHubRepository, String readOnlyAuthToken,
+                                                              Predicate<Commit> ignoredCommit, boolean useGraphQL, boolean useJGit) {
+        return releaseNotesGenerator(workDir, gitHubApiUrl, gitHubRepository, readOnlyAuthToken, ignoredCommit, useGraphQL, useJGit, null);
+    }
+
+    /**
+     * @param workDir the working directory where 'git' operations will be executed
+     * @param gitHubApiUrl GitHub API endpoint address, for example: https://api.github.com
+     * @param gitHubRepository GitHub gitHubRepository in format USER|COMPANY/REPO_NAME, for example: mockito/mockito
+     * @param readOnlyAuthToken read only auth token used to communicate with GitHub
+     * @param ignoredCommit responsible decide if commits should not be included in release notes
+     * @param useGraphQL whether tickets should be fetched using GitHub GraphQL API
+     * @param useJGit whether the git repository should be read in-process with JGit instead of forking 'git'
+     * @param commitIndexFile file where commits parsed from 'git log' are kept for the following runs, can be null
+     */
+    public static ReleaseNotesGenerator releaseNotesGenerator(File workDir, String gitHubApiUrl, String gitHubRepository, String readOnlyAuthToken,
+                                                              Predicate<Commit> ignoredCommit, boolean useGraphQL, boolean useJGit,
+                                                              File commitIndexFile) {
         ProcessRunner processRunner = Exec.getProcessRunner(workDir);
-        ContributionsProvider contributionsProvider = Vcs.getContributionsProvider(processRunner, ignoredCommit);
-        ImprovementsProvider improvementsProvider = Improvements.getGitHubProvider(gitHubApiUrl, gitHubRepository, readOnlyAuthToken);
-        ReleasedVersionsProvider releasedVersionsProvider = Vcs.getReleaseDateProvider(processRunner);
+        ContributionsProvider contributionsProvider;
+        if (useJGit) {
+            contributionsProvider = Vcs.getJGitContributionsProvider(workDir, ignoredCommit);
+        } else if (commitIndexFile != null) {
+            contributionsProvider = Vcs.getContributionsProvider(processRunner, ignoredCommit, commitIndexFile);
+        } else {
+            contributionsProvider = Vcs.getContributionsProvider(processRunner, ignoredCommit);
+        }
+        ImprovementsProvider improvementsProvider = useGraphQL ?
+                Improvements.getGitHubGraphQLProvider(gitHubApiUrl, gitHubRepository, readOnlyAuthToken) :
+                Improvements.getGitHubProvider(gitHubApiUrl, gitHubRepository, readOnlyAuthToken);
+        ReleasedVersionsProvider releasedVersionsProvider = useJGit ?
+                Vcs.getJGitReleaseDateProvider(workDir) :
+                Vcs.getReleaseDateProvider(processRunner);
         GitHubContributorsProvider contributorsProvider = Contributors.getGitHubContributorsProvider(gitHubApiUrl, gitHubRepository, readOnlyAuthToken);
         return new DefaultReleaseNotesGenerator(contributionsProvider, improvementsProvider, releasedVersionsProvider,
                 contributorsProvider);
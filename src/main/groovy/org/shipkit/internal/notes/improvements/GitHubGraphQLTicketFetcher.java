@@ -0,0 +1,134 @@
+package org.shipkit.internal.notes.improvements;
+
+import org.json.simple.JsonArray;
+import org.json.simple.JsonObject;
+import org.shipkit.internal.notes.internal.DefaultImprovement;
+import org.shipkit.internal.notes.model.Improvement;
+import org.shipkit.internal.notes.util.GitHubGraphQL;
+import org.shipkit.internal.notes.util.GitHubTransport;
+import org.shipkit.internal.notes.util.GitHubTransports;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Fetches exactly the referenced tickets using GitHub GraphQL API (https://developer.github.com/v4/).
+ * Tickets are resolved in batches, using aliased 'issueOrPullRequest' queries,
+ * so that the cost scales with the number of referenced tickets and not with the size of the repository history.
+ * Returns the same improvements as {@link GitHubTicketFetcher}: closed issues and pull requests,
+ * with all the requested labels.
+ */
+class GitHubGraphQLTicketFetcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GitHubGraphQLTicketFetcher.class);
+
+    static final int BATCH_SIZE = 50;
+
+    private static final String TICKET_FIELDS = "number title url state labels(first: 100) { nodes { name } }";
+
+    private final GitHubTransport transport;
+
+    GitHubGraphQLTicketFetcher() {
+        this(GitHubTransports.getDefault());
+    }
+
+    GitHubGraphQLTicketFetcher(GitHubTransport transport) {
+        this.transport = transport;
+    }
+
+    Collection<Improvement> fetchTickets(String apiUrl, String repository, String readOnlyAuthToken, Collection<String> ticketIds,
+                                         Collection<String> labels, boolean onlyPullRequests) {
+        List<Improvement> out = new LinkedList<Improvement>();
+        if (ticketIds.isEmpty()) {
+            return out;
+        }
+        List<Long> tickets = sortedDescending(ticketIds);
+        LOG.info("Querying GitHub GraphQL API for {} tickets in {} batch(es)", tickets.size(),
+                (tickets.size() + BATCH_SIZE - 1) / BATCH_SIZE);
+
+        try {
+            for (int i = 0; i < tickets.size(); i += BATCH_SIZE) {
+                List<Long> batch = tickets.subList(i, Math.min(i + BATCH_SIZE, tickets.size()));
+                JsonObject repo = queryBatch(apiUrl, repository, readOnlyAuthToken, batch);
+                for (Long ticket : batch) {
+                    JsonObject issue = (JsonObject) repo.get(alias(ticket));
+                    Improvement improvement = issue == null ? null : toImprovement(issue);
+                    if (improvement != null && isClosed(issue) && hasLabels(improvement, labels)
+                            && (!onlyPullRequests || improvement.isPullRequest())) {
+                        out.add(improvement);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Problems fetching " + ticketIds.size() + " tickets from GitHub GraphQL API", e);
+        }
+        return out;
+    }
+
+    private JsonObject queryBatch(String apiUrl, String repository, String readOnlyAuthToken, List<Long> batch) throws Exception {
+        //tickets that don't exist are simply skipped, the same way the REST fetcher does
+        JsonObject data = new GitHubGraphQL(apiUrl, readOnlyAuthToken, transport).query(query(repository, batch));
+        JsonObject repo = (JsonObject) data.get("repository");
+        if (repo == null) {
+            throw new IllegalStateException("GitHub GraphQL API did not return repository '" + repository + "'");
+        }
+        return repo;
+    }
+
+    static String query(String repository, List<Long> tickets) {
+        String[] ownerAndName = repository.split("/");
+        StringBuilder query = new StringBuilder("query { repository(owner: \"").append(ownerAndName[0])
+                .append("\", name: \"").append(ownerAndName[1]).append("\") {");
+        for (Long ticket : tickets) {
+            query.append(" ").append(alias(ticket)).append(": issueOrPullRequest(number: ").append(ticket).append(") {")
+                    .append(" __typename")
+                    .append(" ... on Issue { ").append(TICKET_FIELDS).append(" }")
+                    .append(" ... on PullRequest { ").append(TICKET_FIELDS).append(" }")
+                    .append(" }");
+        }
+        return query.append(" } }").toString();
+    }
+
+    static Improvement toImprovement(JsonObject issue) {
+        BigDecimal id = (BigDecimal) issue.get("number");
+        String url = (String) issue.get("url");
+        String title = (String) issue.get("title");
+        boolean isPullRequest = "PullRequest".equals(issue.get("__typename"));
+
+        Set<String> labels = new LinkedHashSet<String>();
+        JsonObject labelsConnection = (JsonObject) issue.get("labels");
+        if (labelsConnection != null) {
+            for (Object o : (JsonArray) labelsConnection.get("nodes")) {
+                labels.add((String) ((JsonObject) o).get("name"));
+            }
+        }
+        return new DefaultImprovement(id.longValue(), title, url, labels, isPullRequest);
+    }
+
+    private static boolean isClosed(JsonObject issue) {
+        //the REST fetcher browses closed issues, merged pull requests are closed, too
+        String state = (String) issue.get("state");
+        return "CLOSED".equals(state) || "MERGED".equals(state);
+    }
+
+    /**
+     * Mirrors 'labels' filter of GitHub REST API: the ticket needs to have all the labels
+     */
+    private static boolean hasLabels(Improvement improvement, Collection<String> labels) {
+        return improvement.getLabels().containsAll(labels);
+    }
+
+    private static String alias(Long ticket) {
+        return "t" + ticket;
+    }
+
+    private static List<Long> sortedDescending(Collection<String> ticketIds) {
+        Set<Long> unique = new TreeSet<Long>(Collections.reverseOrder());
+        for (String id : ticketIds) {
+            unique.add(Long.parseLong(id));
+        }
+        return new ArrayList<Long>(unique);
+    }
+}
@@ -4,6 +4,7 @@ import org.json.simple.JsonArray;
 import org.json.simple.JsonObject;
 import org.shipkit.internal.notes.internal.DefaultImprovement;
 import org.shipkit.internal.notes.model.Improvement;
+import org.shipkit.internal.notes.util.JsonProjection;
 
 import java.math.BigDecimal;
 import java.util.Collection;
@@ -15,6 +16,13 @@ import java.util.Set;
  */
 class GitHubImprovementsJSON {
 
+    /**
+     * Fields of the issue that are used by {@link #toImprovement(JsonObject)} and kept in {@link GitHubTicketStore}.
+     * We only need to know if "pull_request" is present, hence we don't need all its fields.
+     */
+    static final JsonProjection ISSUE_FIELDS = JsonProjection.of("number", "html_url", "title", "labels.name", "pull_request.url",
+            "state", "updated_at");
+
     /**
      * Parses GitHub JsonObject in accordance to the API (https://developer.github.com/v3/issues/)
      */
@@ -2,26 +2,118 @@ package org.shipkit.internal.notes.improvements;
 
 import org.shipkit.internal.notes.model.ContributionSet;
 import org.shipkit.internal.notes.model.Improvement;
+import org.shipkit.internal.notes.util.LruCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Collection;
+import java.io.File;
+import java.util.*;
 
 class GitHubImprovementsProvider implements ImprovementsProvider {
 
     private static final Logger LOG = LoggerFactory.getLogger(GitHubImprovementsProvider.class);
+
+    /**
+     * Tolerance for the difference between local clock and GitHub clock when storing the time of the last sync
+     */
+    private static final long CLOCK_SKEW_MILLIS = 5 * 60 * 1000;
+
+    /**
+     * Ticket stores kept in memory for the lifetime of the Gradle daemon so that consecutive builds
+     * don't need to parse the store file again. The key contains the modification time of the store file,
+     * if the file was changed or removed by a different process, the store is loaded from disk again.
+     */
+    private static final LruCache<String, GitHubTicketStore> STORES = new LruCache<String, GitHubTicketStore>(16);
+
     private final String apiUrl;
     private final String readOnlyAuthToken;
     private final String repository;
+    private final boolean useGraphQL;
+    private final LruCache<String, GitHubTicketStore> stores;
+
+    private GitHubTicketStore store;
 
-    GitHubImprovementsProvider(String apiUrl, String repository, String readOnlyAuthToken) {
+    GitHubImprovementsProvider(String apiUrl, String repository, String readOnlyAuthToken, boolean useGraphQL) {
+        this(apiUrl, repository, readOnlyAuthToken, useGraphQL, STORES);
+    }
+
+    /**
+     * @param stores ticket stores loaded by previous builds, by default shared by all providers in the Gradle daemon
+     */
+    GitHubImprovementsProvider(String apiUrl, String repository, String readOnlyAuthToken, boolean useGraphQL,
+                               LruCache<String, GitHubTicketStore> stores) {
         this.apiUrl = apiUrl;
         this.repository = repository;
         this.readOnlyAuthToken = readOnlyAuthToken;
+        this.useGraphQL = useGraphQL;
+        this.stores = stores;
     }
 
-    public Collection<Improvement> getImprovements(ContributionSet contributions, Collection<String> labels, boolean onlyPullRequests) {
+    public Collection<Improvement> getImprovements(ContributionSet contributions, Collection<String> labels, boolean onlyPullRequests, Date since) {
         LOG.info("Parsing {} commits with {} tickets", contributions.getAllCommits().size(), contributions.getAllTickets().size());
-        return new GitHubTicketFetcher().fetchTickets(apiUrl, repository, readOnlyAuthToken, contributions.getAllTickets(), labels, onlyPullRequests);
+        if (useGraphQL) {
+            return new GitHubGraphQLTicketFetcher().fetchTickets(apiUrl, repository, readOnlyAuthToken, contributions.getAllTickets(), labels, onlyPullRequests);
+        }
+        if (contributions.getAllTickets().isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        GitHubTicketStore store = getSynchronizedStore();
+        List<Improvement> out = new ArrayList<Improvement>();
+        List<String> missing = new ArrayList<String>();
+        for (String ticket : contributions.getAllTickets()) {
+            long number = Long.parseLong(ticket);
+            if (store.contains(number)) {
+                Improvement improvement = store.getImprovement(number, labels, onlyPullRequests);
+                if (improvement != null) {
+                    out.add(improvement);
+                }
+            } else {
+                missing.add(ticket);
+            }
+        }
+        LOG.info("Found {} of {} tickets in the ticket store, fetching {} from GitHub",
+                contributions.getAllTickets().size() - missing.size(), contributions.getAllTickets().size(), missing.size());
+
+        out.addAll(new GitHubTicketFetcher(store).fetchTickets(apiUrl, repository, readOnlyAuthToken, missing, labels, onlyPullRequests, since));
+        store.save();
+        File storeFile = GitHubTicketStore.getStoreFile(apiUrl, repository);
+        stores.put(storeKey(storeFile), store);
+
+        //most recent tickets first, the same order as the page scan returns
+        Collections.sort(out, new Comparator<Improvement>() {
+            public int compare(Improvement a, Improvement b) {
+                return b.getId().compareTo(a.getId());
+            }
+        });
+        return out;
+    }
+
+    /**
+     * Loads the ticket store and brings the stored tickets up to date, once per provider instance
+     */
+    private GitHubTicketStore getSynchronizedStore() {
+        if (store == null) {
+            File storeFile = GitHubTicketStore.getStoreFile(apiUrl, repository);
+            GitHubTicketStore s = stores.get(storeKey(storeFile));
+            if (s == null) {
+                s = GitHubTicketStore.load(storeFile);
+            } else {
+                LOG.info("Reusing ticket store with {} ticket(s) loaded by previous build", s.size());
+            }
+            Date syncStart = new Date(System.currentTimeMillis() - CLOCK_SKEW_MILLIS);
+            if (s.getLastSync() != null && s.size() > 0) {
+                int updated = new GitHubTicketFetcher(s).syncUpdatedTickets(apiUrl, repository, readOnlyAuthToken, s.getLastSync());
+                LOG.info("Synchronized {} ticket(s) updated since the last sync", updated);
+            }
+            //tickets fetched from now on are up to date as of the sync start
+            s.setLastSync(syncStart);
+            store = s;
+        }
+        return store;
+    }
+
+    static String storeKey(File storeFile) {
+        return storeFile.getAbsolutePath() + "@" + storeFile.lastModified();
     }
 }
@@ -1,52 +1,247 @@
 package org.shipkit.internal.notes.improvements;
 
 import org.json.simple.DeserializationException;
+import org.json.simple.JsonArray;
 import org.json.simple.JsonObject;
+import org.json.simple.Jsoner;
 import org.shipkit.internal.gradle.util.StringUtil;
 import org.shipkit.internal.notes.model.Improvement;
 import org.shipkit.internal.notes.util.GitHubListFetcher;
+import org.shipkit.internal.notes.util.GitHubRequest;
+import org.shipkit.internal.notes.util.GitHubResponse;
+import org.shipkit.internal.notes.util.GitHubTransport;
+import org.shipkit.internal.notes.util.GitHubTransports;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static org.shipkit.internal.util.DateUtil.forGitHub;
+
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.net.URLEncoder;
 import java.util.*;
 
 class GitHubTicketFetcher {
 
     private static final Logger LOG = LoggerFactory.getLogger(GitHubTicketFetcher.class);
 
+    /**
+     * Number of issues per page, max value allowed by GitHub API
+     */
+    static final int PAGE_SIZE = 100;
+
+    /**
+     * Tickets can be closed (updated) some time before the previous release and referenced by commits afterwards.
+     * Tickets that are not found in the date bounded scan are looked up directly, the margin keeps such lookups rare.
+     */
+    static final long SINCE_SAFETY_MARGIN_MILLIS = 14L * 24 * 60 * 60 * 1000;
+
+    private final GitHubTransport transport;
+    private final GitHubTicketStore store;
+
+    GitHubTicketFetcher() {
+        this(GitHubTransports.getDefault(), null);
+    }
+
+    /**
+     * @param store nullable, receives all tickets fetched from GitHub
+     */
+    GitHubTicketFetcher(GitHubTicketStore store) {
+        this(GitHubTransports.getDefault(), store);
+    }
+
+    GitHubTicketFetcher(GitHubTransport transport, GitHubTicketStore store) {
+        this.transport = transport;
+        this.store = store;
+    }
+
+    /**
+     * Fetches all tickets updated since given date (open and closed) and puts them to the store.
+     * Returns the number of fetched tickets.
+     */
+    int syncUpdatedTickets(String apiUrl, String repository, String readOnlyAuthToken, Date since) {
+        LOG.info("Synchronizing tickets of {} updated since {}", repository, since);
+        try {
+            GitHubIssues issues = GitHubIssues.forRepo(apiUrl, repository, readOnlyAuthToken)
+                    .state("all")
+                    .filter("all")
+                    .sort("updated")
+                    .direction("asc")
+                    .perPage(PAGE_SIZE)
+                    .since(since)
+                    .browse(transport);
+            int count = 0;
+            while (issues.hasNextPage()) {
+                List<JsonObject> page = issues.nextPage();
+                for (JsonObject issue : page) {
+                    store.put(issue);
+                }
+                count += page.size();
+            }
+            return count;
+        } catch (Exception e) {
+            throw new RuntimeException("Problems synchronizing tickets updated since " + since + " from GitHub", e);
+        }
+    }
+
     Collection<Improvement> fetchTickets(String apiUrl, String repository, String readOnlyAuthToken, Collection<String> ticketIds, Collection<String> labels,
                                          boolean onlyPullRequests) {
+        return fetchTickets(apiUrl, repository, readOnlyAuthToken, ticketIds, labels, onlyPullRequests, null);
+    }
+
+    /**
+     * @param since nullable, date of the previous release. When provided, only tickets updated after that date
+     *              (minus the safety margin) are scanned.
+     */
+    Collection<Improvement> fetchTickets(String apiUrl, String repository, String readOnlyAuthToken, Collection<String> ticketIds, Collection<String> labels,
+                                         boolean onlyPullRequests, Date since) {
         List<Improvement> out = new LinkedList<Improvement>();
         if (ticketIds.isEmpty()) {
             return out;
         }
         LOG.info("Querying GitHub API for {} tickets", ticketIds.size());
 
-        Queue<Long> tickets = queuedTicketNumbers(ticketIds);
-
+        Date updatedSince = since == null ? null : new Date(since.getTime() - SINCE_SAFETY_MARGIN_MILLIS);
+        List<Long> numbers = ticketNumbers(ticketIds);
+        int requests = 0;
         try {
-            GitHubIssues issues = GitHubIssues.forRepo(apiUrl, repository, readOnlyAuthToken)
-                    .state("closed")
-                    .labels(StringUtil.join(labels, ","))
-                    .filter("all")
-                    .direction("desc")
-                    .browse();
-
-            while (!tickets.isEmpty() && issues.hasNextPage()) {
-                List<JsonObject> page = issues.nextPage();
+            TicketFetchPlan plan;
+            int estimate;
+            if (numbers.size() == 1) {
+                //the scan needs at least one request too
+                plan = TicketFetchPlan.direct(numbers);
+                estimate = plan.getRequestCount();
+            } else {
+                plan = planFetch(apiUrl, repository, readOnlyAuthToken, numbers, labels, updatedSince);
+                requests++;
+                estimate = plan.getRequestCount() + 1;
+            }
+            LOG.info("Fetching tickets using {}, estimated {} GitHub API request(s)", plan, estimate);
 
-                out.addAll(extractImprovements(
-                        dropTicketsAboveMaxInPage(tickets, page),
-                        page, onlyPullRequests));
+            List<Long> direct = new ArrayList<Long>(plan.getDirectTickets());
+            if (!plan.getScannedTickets().isEmpty()) {
+                Set<Long> seen = new HashSet<Long>();
+                requests += scanTickets(apiUrl, repository, readOnlyAuthToken, plan.getScannedTickets(), labels, onlyPullRequests,
+                        updatedSince, out, seen);
+                if (updatedSince != null) {
+                    //tickets not updated since the date are not in the scanned pages
+                    List<Long> missed = new ArrayList<Long>(plan.getScannedTickets());
+                    missed.removeAll(seen);
+                    if (!missed.isEmpty()) {
+                        LOG.info("{} ticket(s) not found in issues updated since {}, fetching them directly: {}", missed.size(), updatedSince, missed);
+                    }
+                    direct.addAll(missed);
+                }
             }
+            for (Long ticket : direct) {
+                Improvement improvement = fetchTicket(apiUrl, repository, readOnlyAuthToken, ticket, labels);
+                requests++;
+                if (improvement != null && (!onlyPullRequests || improvement.isPullRequest())) {
+                    out.add(improvement);
+                }
+            }
+            LOG.info("Fetched {} tickets using {} GitHub API request(s), estimated {}", out.size(), requests, estimate);
         } catch (Exception e) {
             throw new RuntimeException("Problems fetching " + ticketIds.size() + " tickets from GitHub", e);
         }
         return out;
     }
 
+    /**
+     * Plans the fetch using the listing the page scan would browse. A single issue page of the listing tells
+     * the number of the newest issue (where the scan starts) and, thanks to the 'last' page link, the number of issues.
+     */
+    private TicketFetchPlan planFetch(String apiUrl, String repository, String readOnlyAuthToken, List<Long> tickets,
+                                      Collection<String> labels, Date since) throws Exception {
+        GitHubRequest request = GitHubRequest.get(closedIssues(apiUrl, repository, readOnlyAuthToken, labels, since)
+                .perPage(1)
+                .url());
+        GitHubResponse response = transport.execute(request).ensureSuccessful(request);
+        JsonArray issues = (JsonArray) Jsoner.deserialize(response.getContent());
+        if (issues.isEmpty()) {
+            return TicketFetchPlan.plan(tickets, PAGE_SIZE, 0, 0);
+        }
+        long newest = ((BigDecimal) ((JsonObject) issues.get(0)).get("number")).longValue();
+        int count = GitHubListFetcher.lastPage(response);
+        LOG.info("Newest closed issue is #{}, {} closed issue(s) to browse", newest, count);
+        return TicketFetchPlan.plan(tickets, PAGE_SIZE, newest, count);
+    }
+
+    /**
+     * Browses closed issues until all given tickets are found, returns the number of pages fetched
+     *
+     * @param since nullable, only issues updated after this date are browsed
+     * @param seen collects numbers of all browsed issues
+     */
+    private int scanTickets(String apiUrl, String repository, String readOnlyAuthToken, Collection<Long> ticketNumbers,
+                            Collection<String> labels, boolean onlyPullRequests, Date since,
+                            List<Improvement> out, Set<Long> seen) throws Exception {
+        Queue<Long> tickets = queuedTicketNumbers(ticketNumbers);
+        int pages = 0;
+        GitHubIssues issues = closedIssues(apiUrl, repository, readOnlyAuthToken, labels, since)
+                .perPage(PAGE_SIZE)
+                .browse(transport);
+
+        while (!tickets.isEmpty() && issues.hasNextPage()) {
+            List<JsonObject> page = issues.nextPage();
+            pages++;
+            for (JsonObject issue : page) {
+                seen.add(((BigDecimal) issue.get("number")).longValue());
+                if (store != null) {
+                    store.put(issue);
+                }
+            }
+
+            out.addAll(extractImprovements(
+                    dropTicketsAboveMaxInPage(tickets, page),
+                    page, onlyPullRequests));
+        }
+        return pages;
+    }
+
+    /**
+     * Closed issues with given labels, newest first
+     *
+     * @param since nullable, only issues updated after this date are listed
+     */
+    private static GitHubIssues.GitHubIssuesBuilder closedIssues(String apiUrl, String repository, String readOnlyAuthToken,
+                                                                 Collection<String> labels, Date since) throws IOException {
+        GitHubIssues.GitHubIssuesBuilder builder = GitHubIssues.forRepo(apiUrl, repository, readOnlyAuthToken)
+                .state("closed")
+                .labels(StringUtil.join(labels, ","))
+                .filter("all")
+                .direction("desc");
+        if (since != null) {
+            builder.since(since);
+        }
+        return builder;
+    }
+
+    /**
+     * Fetches single ticket, returns null if the ticket does not exist or it would not be found by the page scan
+     * (it is not closed or does not have all the labels).
+     */
+    private Improvement fetchTicket(String apiUrl, String repository, String readOnlyAuthToken, Long ticket,
+                                    Collection<String> labels) throws Exception {
+        // see API doc: https://developer.github.com/v3/issues/#get-a-single-issue
+        String url = apiUrl + "/repos/" + repository + "/issues/" + ticket + "?access_token=" + readOnlyAuthToken;
+        GitHubRequest request = GitHubRequest.get(url);
+        GitHubResponse response = transport.execute(request);
+        if (response.getStatusCode() == 404 || response.getStatusCode() == 410) {
+            LOG.info("Ticket #{} not found in GitHub repository {}", ticket, repository);
+            return null;
+        }
+        JsonObject issue = (JsonObject) Jsoner.deserialize(response.ensureSuccessful(request).getContent());
+        if (store != null) {
+            store.put(issue);
+        }
+        if (!"closed".equals(issue.get("state"))) {
+            return null;
+        }
+        Improvement improvement = GitHubImprovementsJSON.toImprovement(issue);
+        return improvement.getLabels().containsAll(labels) ? improvement : null;
+    }
+
     private Queue<Long> dropTicketsAboveMaxInPage(Queue<Long> tickets, List<JsonObject> page) {
         if (page.isEmpty()) {
             return tickets;
@@ -58,11 +253,16 @@ class GitHubTicketFetcher {
         return tickets;
     }
 
-    private Queue<Long> queuedTicketNumbers(Collection<String> ticketIds) {
+    private static List<Long> ticketNumbers(Collection<String> ticketIds) {
         List<Long> tickets = new ArrayList<Long>();
         for (String id : ticketIds) {
             tickets.add(Long.parseLong(id));
         }
+        return tickets;
+    }
+
+    private Queue<Long> queuedTicketNumbers(Collection<Long> ticketNumbers) {
+        List<Long> tickets = new ArrayList<Long>(ticketNumbers);
         Collections.sort(tickets);
         PriorityQueue<Long> longs = new PriorityQueue<Long>(tickets.size(), Collections.reverseOrder());
         longs.addAll(tickets);
@@ -95,8 +295,8 @@ class GitHubTicketFetcher {
 
         private final GitHubListFetcher fetcher;
 
-        private GitHubIssues(String nextPageUrl) {
-            fetcher = new GitHubListFetcher(nextPageUrl);
+        private GitHubIssues(String nextPageUrl, GitHubTransport transport) {
+            fetcher = new GitHubListFetcher(nextPageUrl, GitHubListFetcher.DEFAULT_CONCURRENCY, GitHubImprovementsJSON.ISSUE_FIELDS, transport);
         }
 
         boolean hasNextPage() {
@@ -111,7 +311,7 @@ class GitHubTicketFetcher {
             return new GitHubIssuesBuilder(apiUrl, repository, readOnlyAuthToken);
         }
 
-        private static class GitHubIssuesBuilder {
+        static class GitHubIssuesBuilder {
             private final String apiUrl;
             private final String repository;
 
@@ -140,6 +340,24 @@ class GitHubTicketFetcher {
                 return this;
             }
 
+            GitHubIssuesBuilder sort(String sort) {
+                parameters.put("sort", sort);
+                return this;
+            }
+
+            GitHubIssuesBuilder perPage(int perPage) {
+                parameters.put("per_page", String.valueOf(perPage));
+                return this;
+            }
+
+            /**
+             * Only list issues updated at or after given date
+             */
+            GitHubIssuesBuilder since(Date since) throws IOException {
+                parameters.put("since", URLEncoder.encode(forGitHub(since, TimeZone.getTimeZone("UTC")), "UTF-8"));
+                return this;
+            }
+
             /**
              * Only list issues with given labels, comma separated list.
              * Empty string is ok and means that we are interested in all issues, regardless of the label.
@@ -149,7 +367,14 @@ class GitHubTicketFetcher {
                 return this;
             }
 
-            GitHubIssues browse() {
+            GitHubIssues browse(GitHubTransport transport) {
+                return new GitHubIssues(url(), transport);
+            }
+
+            /**
+             * Url of the first page
+             */
+            String url() {
                 // see API doc: https://developer.github.com/v3/issues/
                 StringBuilder urlBuilder = new StringBuilder(apiUrl)
                         .append("/repos/").append(repository)
@@ -159,7 +384,7 @@ class GitHubTicketFetcher {
                     urlBuilder.append("&").append(parameter.getKey()).append("=").append(parameter.getValue());
                 }
 
-                return new GitHubIssues(urlBuilder.toString());
+                return urlBuilder.toString();
             }
         }
     }
@@ -0,0 +1,146 @@
+package org.shipkit.internal.notes.improvements;
+
+import org.json.simple.JsonArray;
+import org.json.simple.JsonObject;
+import org.json.simple.Jsoner;
+import org.shipkit.internal.notes.model.Improvement;
+import org.shipkit.internal.notes.util.GitHubTransports;
+import org.shipkit.internal.notes.util.IOUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Local store of GitHub tickets of a single repository, keyed by the ticket number.
+ * Keeps only the fields needed to create {@link Improvement} plus 'state' and 'updated_at'.
+ * <p>
+ * Closed tickets almost never change, so once fetched they can be reused by the following releases.
+ * The store remembers when it was last synchronized, tickets updated after that time need to be fetched again
+ * (see {@link GitHubTicketFetcher#syncUpdatedTickets}).
+ * <p>
+ * The store lives in the Gradle user home, so that it is reused by all builds of the repository on the machine.
+ */
+class GitHubTicketStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GitHubTicketStore.class);
+
+    private final File file;
+    private final Map<Long, JsonObject> tickets = new TreeMap<Long, JsonObject>();
+    private Date lastSync;
+
+    GitHubTicketStore(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Store file for given repository
+     */
+    static File getStoreFile(String apiUrl, String repository) {
+        String name = (apiUrl + "/" + repository).replaceFirst("^https?://", "").replaceAll("[^A-Za-z0-9._-]", "_");
+        return new File(GitHubTransports.getShipkitCacheDir(), "github-tickets/" + name + ".json");
+    }
+
+    /**
+     * Loads the store from file. Missing or unreadable file results in an empty store.
+     */
+    static GitHubTicketStore load(File file) {
+        GitHubTicketStore store = new GitHubTicketStore(file);
+        if (!file.isFile()) {
+            return store;
+        }
+        try {
+            JsonObject json = (JsonObject) Jsoner.deserialize(IOUtil.readFully(file));
+            BigDecimal lastSync = (BigDecimal) json.get("lastSync");
+            store.lastSync = lastSync == null ? null : new Date(lastSync.longValue());
+            for (Object t : (JsonArray) json.get("tickets")) {
+                store.put((JsonObject) t);
+            }
+            LOG.info("Loaded {} tickets from {}, last synchronized: {}", store.tickets.size(), file, store.lastSync);
+        } catch (Exception e) {
+            LOG.warn("Unable to read ticket store {}, all tickets will be fetched from GitHub again", file, e);
+            store.tickets.clear();
+            store.lastSync = null;
+        }
+        return store;
+    }
+
+    /**
+     * Adds or replaces the ticket.
+     *
+     * @param issue issue in the format of GitHub API (https://developer.github.com/v3/issues/),
+     *              the fields that are not needed are dropped
+     */
+    synchronized void put(JsonObject issue) {
+        JsonObject ticket = new JsonObject();
+        ticket.put("number", issue.get("number"));
+        ticket.put("title", issue.get("title"));
+        ticket.put("html_url", issue.get("html_url"));
+        ticket.put("state", issue.get("state"));
+        ticket.put("updated_at", issue.get("updated_at"));
+        JsonArray labels = new JsonArray();
+        for (Object o : (JsonArray) issue.get("labels")) {
+            JsonObject label = new JsonObject();
+            label.put("name", ((JsonObject) o).get("name"));
+            labels.add(label);
+        }
+        ticket.put("labels", labels);
+        if (issue.get("pull_request") != null) {
+            ticket.put("pull_request", new JsonObject());
+        }
+        tickets.put(((BigDecimal) issue.get("number")).longValue(), ticket);
+    }
+
+    synchronized boolean contains(long number) {
+        return tickets.containsKey(number);
+    }
+
+    /**
+     * Returns the improvement for given ticket, the same way the page scan would find it:
+     * only closed tickets that have all the labels.
+     * Returns null if the ticket does not qualify.
+     */
+    synchronized Improvement getImprovement(long number, Collection<String> labels, boolean onlyPullRequests) {
+        JsonObject ticket = tickets.get(number);
+        if (ticket == null || !"closed".equals(ticket.get("state"))) {
+            return null;
+        }
+        Improvement improvement = GitHubImprovementsJSON.toImprovement(ticket);
+        if (!improvement.getLabels().containsAll(labels) || (onlyPullRequests && !improvement.isPullRequest())) {
+            return null;
+        }
+        return improvement;
+    }
+
+    synchronized int size() {
+        return tickets.size();
+    }
+
+    /**
+     * Nullable, tickets in the store reflect all changes made on GitHub before this date
+     */
+    synchronized Date getLastSync() {
+        return lastSync;
+    }
+
+    synchronized void setLastSync(Date lastSync) {
+        this.lastSync = lastSync;
+    }
+
+    /**
+     * Saves the store to file. Failure to save is not fatal, the tickets will be fetched again next time.
+     */
+    synchronized void save() {
+        JsonObject json = new JsonObject();
+        json.put("lastSync", lastSync == null ? null : lastSync.getTime());
+        json.put("tickets", new JsonArray(tickets.values()));
+        try {
+            IOUtil.writeFileAtomically(file, Jsoner.serialize(json).getBytes("UTF-8"));
+        } catch (IOException e) {
+            LOG.warn("Unable to save ticket store {}", file, e);
+        }
+    }
+}
@@ -13,6 +13,18 @@ public class Improvements {
      * @param readOnlyAuthToken the GitHub auth token
      */
     public static ImprovementsProvider getGitHubProvider(String apiUrl, String repository, final String readOnlyAuthToken) {
-        return new GitHubImprovementsProvider(apiUrl, repository, readOnlyAuthToken);
+        return new GitHubImprovementsProvider(apiUrl, repository, readOnlyAuthToken, false);
+    }
+
+    /**
+     * Fetches tickets from GitHub using GraphQL API, in batches, only the referenced tickets are queried.
+     * Needs GitHub auth token.
+     *
+     * @param apiUrl GitHub API endpoint address, for example: https://api.github.com
+     * @param repository the repository in format USER|COMPANY/REPO_NAME, for example: mockito/mockito
+     * @param readOnlyAuthToken the GitHub auth token
+     */
+    public static ImprovementsProvider getGitHubGraphQLProvider(String apiUrl, String repository, final String readOnlyAuthToken) {
+        return new GitHubImprovementsProvider(apiUrl, repository, readOnlyAuthToken, true);
     }
 }
@@ -4,6 +4,7 @@ import org.shipkit.internal.notes.model.ContributionSet;
 import org.shipkit.internal.notes.model.Improvement;
 
 import java.util.Collection;
+import java.util.Date;
 
 /**
  * Provides tracked improvements to be referenced in release notes
@@ -17,6 +18,9 @@ public interface ImprovementsProvider {
      * @param labels get only improvements that have one of supplied labels.
      *               Empty collection is ok and it means that you want all improvements.
      * @param onlyPullRequests if true, only improvements that are pull requests are returned.
+     * @param since nullable, the date of the previous release.
+     *              Improvements referenced by the contributions were most likely updated after that date,
+     *              providers can use it to narrow down the search.
      */
-    Collection<Improvement> getImprovements(ContributionSet contributions, Collection<String> labels, boolean onlyPullRequests);
+    Collection<Improvement> getImprovements(ContributionSet contributions, Collection<String> labels, boolean onlyPullRequests, Date since);
 }
@@ -0,0 +1,123 @@
+package org.shipkit.internal.notes.improvements;
+
+import java.util.*;
+
+/**
+ * Decides how to fetch the referenced tickets from GitHub using the least number of requests.
+ * <p>
+ * Browsing closed issues costs one request per page and the number of pages depends on how far back
+ * the lowest ticket is. Fetching the ticket directly ('GET /issues/{number}') costs one request per ticket.
+ * The plan scans the recent range of ticket numbers and fetches the outliers (old tickets) directly.
+ * Pure page scan and pure direct lookups are the extreme cases of such plan.
+ * <p>
+ * The scan starts at the newest issue of the listing (page 1), which can be far above the highest referenced ticket.
+ * The page estimate assumes that every number between the newest issue and the ticket is in the listing,
+ * capped by the number of issues in the listing (it is shorter when it is bounded by the update date).
+ * Open tickets or tickets filtered out by labels make the real scan shorter.
+ */
+class TicketFetchPlan {
+
+    private final List<Long> scanned;
+    private final List<Long> direct;
+    private final int scanPages;
+
+    private TicketFetchPlan(List<Long> scanned, List<Long> direct, int scanPages) {
+        this.scanned = scanned;
+        this.direct = direct;
+        this.scanPages = scanPages;
+    }
+
+    /**
+     * Creates the cheapest plan for given tickets, assuming that the scan starts at the highest ticket
+     *
+     * @param tickets ticket numbers
+     * @param pageSize number of issues returned in a single page of the scan
+     */
+    static TicketFetchPlan plan(Collection<Long> tickets, int pageSize) {
+        long highest = tickets.isEmpty() ? 0 : Collections.max(tickets);
+        return plan(tickets, pageSize, highest, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates the cheapest plan for given tickets
+     *
+     * @param tickets ticket numbers
+     * @param pageSize number of issues returned in a single page of the scan
+     * @param newestIssue number of the first issue on the first page of the scan
+     * @param issueCount number of issues in the scanned listing
+     */
+    static TicketFetchPlan plan(Collection<Long> tickets, int pageSize, long newestIssue, int issueCount) {
+        List<Long> sorted = new ArrayList<Long>(new TreeSet<Long>(tickets));
+        Collections.reverse(sorted);
+        if (sorted.isEmpty()) {
+            return new TicketFetchPlan(sorted, sorted, 0);
+        }
+
+        //start with all tickets fetched directly, then try scanning down to every ticket
+        int bestScanned = 0;
+        int bestPages = 0;
+        int bestCost = sorted.size();
+        int maxPages = pages(issueCount, pageSize);
+        for (int i = 0; i < sorted.size(); i++) {
+            int pages = scanPages(newestIssue, sorted.get(i), pageSize, maxPages);
+            int cost = pages + sorted.size() - i - 1;
+            //on a tie prefer the scan, pages are fetched concurrently
+            if (cost <= bestCost) {
+                bestCost = cost;
+                bestScanned = i + 1;
+                bestPages = pages;
+            }
+        }
+        return new TicketFetchPlan(sorted.subList(0, bestScanned), sorted.subList(bestScanned, sorted.size()), bestPages);
+    }
+
+    /**
+     * Direct lookup of all tickets
+     */
+    static TicketFetchPlan direct(Collection<Long> tickets) {
+        List<Long> sorted = new ArrayList<Long>(new TreeSet<Long>(tickets));
+        Collections.reverse(sorted);
+        return new TicketFetchPlan(Collections.<Long>emptyList(), sorted, 0);
+    }
+
+    private static int scanPages(long newest, long lowest, int pageSize, int maxPages) {
+        //the scan fetches at least the first page
+        return Math.max(1, Math.min(pages(newest - lowest + 1, pageSize), maxPages));
+    }
+
+    private static int pages(long issues, int pageSize) {
+        return (int) Math.min(Integer.MAX_VALUE, (issues + pageSize - 1) / pageSize);
+    }
+
+    /**
+     * Tickets to be found by browsing the pages of closed issues, in descending order
+     */
+    List<Long> getScannedTickets() {
+        return scanned;
+    }
+
+    /**
+     * Tickets to be fetched one by one, in descending order
+     */
+    List<Long> getDirectTickets() {
+        return direct;
+    }
+
+    /**
+     * Estimated number of GitHub API requests needed to execute the plan
+     */
+    int getRequestCount() {
+        return scanPages + direct.size();
+    }
+
+    public String toString() {
+        if (direct.isEmpty()) {
+            return "page scan of ~" + scanPages + " page(s) for " + scanned.size() + " ticket(s)";
+        }
+        if (scanned.isEmpty()) {
+            return "direct lookup of " + direct.size() + " ticket(s)";
+        }
+        return "page scan of ~" + scanPages + " page(s) for " + scanned.size() + " recent ticket(s) (down to #"
+                + scanned.get(scanned.size() - 1) + ") and direct lookup of " + direct.size() + " older ticket(s)";
+    }
+}
@@ -0,0 +1,211 @@
+package org.shipkit.internal.notes.util;
+
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.json.simple.JsonArray;
+import org.json.simple.JsonObject;
+import org.json.simple.Jsoner;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Persistent http cache for GitHub API GET requests.
+ * Stores the ETag and Last-Modified values together with the response and sends conditional requests.
+ * When GitHub responds with '304 Not Modified' the response is served from disk.
+ * Conditional requests answered with 304 do not count against the GitHub rate limit.
+ * <p>
+ * Entries are keyed by the url with the auth token stripped.
+ * Response headers (like 'Link' needed for pagination) are cached together with the body.
+ * The auth token in cached header values is masked, responses served from the cache get the token of the current request.
+ */
+class CachingGitHubTransport implements GitHubTransport {
+
+    private static final Logger LOG = Logging.getLogger(CachingGitHubTransport.class);
+
+    //headers that are not worth caching because they describe given exchange, not the resource
+    private static final Set<String> TRANSIENT_HEADERS = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        TRANSIENT_HEADERS.addAll(Arrays.asList("X-RateLimit-Limit", "X-RateLimit-Remaining", "X-RateLimit-Reset",
+                "Date", "X-GitHub-Request-Id", "Set-Cookie"));
+    }
+
+    private static final Pattern TOKEN_PARAM = Pattern.compile("access_token=([^&>;\\s]*)");
+
+    private final GitHubTransport delegate;
+    private final File cacheDir;
+
+    CachingGitHubTransport(GitHubTransport delegate, File cacheDir) {
+        this.delegate = delegate;
+        this.cacheDir = cacheDir;
+    }
+
+    public GitHubResponse execute(GitHubRequest request) throws IOException {
+        if (!"GET".equals(request.getMethod())) {
+            return delegate.execute(request);
+        }
+
+        String key = cacheKey(request.getUrl());
+        CacheEntry entry = load(key);
+        GitHubRequest conditional = request;
+        if (entry != null) {
+            if (entry.etag != null) {
+                conditional = conditional.withHeader("If-None-Match", entry.etag);
+            }
+            if (entry.lastModified != null) {
+                conditional = conditional.withHeader("If-Modified-Since", entry.lastModified);
+            }
+        }
+
+        GitHubResponse response = delegate.execute(conditional);
+
+        if (response.getStatusCode() == 304 && entry != null) {
+            LOG.info("GitHub API resource not modified, using cached response: {}", stripToken(request.getUrl()));
+            return entry.toResponse(response.getHeaders(), token(request.getUrl()));
+        }
+        if (response.getStatusCode() == 200
+                && (response.getHeader("ETag") != null || response.getHeader("Last-Modified") != null)) {
+            store(key, request.getUrl(), response);
+        }
+        return response;
+    }
+
+    private CacheEntry load(String key) {
+        File meta = new File(cacheDir, key + ".json");
+        File body = new File(cacheDir, key + ".body");
+        if (!meta.isFile() || !body.isFile()) {
+            return null;
+        }
+        try {
+            JsonObject json = (JsonObject) Jsoner.deserialize(IOUtil.readFully(meta));
+            Map<String, List<String>> headers = new LinkedHashMap<String, List<String>>();
+            JsonObject h = (JsonObject) json.get("headers");
+            for (Map.Entry<String, Object> e : h.entrySet()) {
+                List<String> values = new ArrayList<String>();
+                for (Object v : (JsonArray) e.getValue()) {
+                    values.add((String) v);
+                }
+                headers.put(e.getKey(), values);
+            }
+            return new CacheEntry(json.getString("etag"), json.getString("lastModified"), headers,
+                    readBytes(body), Boolean.TRUE.equals(json.getBoolean("gzipped")));
+        } catch (Exception e) {
+            LOG.info("Ignoring unreadable GitHub API cache entry: {}", meta, e);
+            return null;
+        }
+    }
+
+    private void store(String key, String url, GitHubResponse response) {
+        Map<String, Object> headers = new LinkedHashMap<String, Object>();
+        for (Map.Entry<String, List<String>> e : response.getHeaders().entrySet()) {
+            if (!TRANSIENT_HEADERS.contains(e.getKey())) {
+                //'Link' header contains urls of other pages, including the token
+                List<String> values = new ArrayList<String>();
+                for (String v : e.getValue()) {
+                    values.add(FixtureGitHubTransport.maskSecrets(v));
+                }
+                headers.put(e.getKey(), new JsonArray(values));
+            }
+        }
+        JsonObject json = new JsonObject();
+        json.put("url", stripToken(url));
+        json.put("etag", response.getHeader("ETag"));
+        json.put("lastModified", response.getHeader("Last-Modified"));
+        json.put("gzipped", response.isGzipped());
+        json.put("headers", new JsonObject(headers));
+
+        try {
+            //body first, metadata last, so that partially written entries are never picked up
+            IOUtil.writeFileAtomically(new File(cacheDir, key + ".body"), response.getRawBody());
+            IOUtil.writeFileAtomically(new File(cacheDir, key + ".json"), Jsoner.serialize(json).getBytes("UTF-8"));
+        } catch (IOException e) {
+            LOG.warn("Unable to store GitHub API response in cache dir: {}", cacheDir, e);
+        }
+    }
+
+    static byte[] readBytes(File file) throws IOException {
+        byte[] bytes = new byte[(int) file.length()];
+        DataInputStream in = new DataInputStream(new FileInputStream(file));
+        try {
+            in.readFully(bytes);
+        } finally {
+            IOUtil.close(in);
+        }
+        return bytes;
+    }
+
+    /**
+     * Cache key, the SHA-1 of the url without the auth token
+     */
+    static String cacheKey(String url) {
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            byte[] digest = sha1.digest(stripToken(url).getBytes("UTF-8"));
+            return String.format("%040x", new BigInteger(1, digest));
+        } catch (Exception e) {
+            throw new RuntimeException("Problems calculating cache key for url", e);
+        }
+    }
+
+    /**
+     * Removes 'access_token' query parameter from the url
+     */
+    static String stripToken(String url) {
+        return url.replaceAll("access_token=[^&]*&?", "").replaceAll("[?&]$", "");
+    }
+
+    /**
+     * Value of the 'access_token' query parameter of the url, empty String if the url does not have the token
+     */
+    static String token(String url) {
+        Matcher m = TOKEN_PARAM.matcher(url);
+        return m.find() ? m.group(1) : "";
+    }
+
+    /**
+     * Replaces tokens in given text (masked or not) with given token
+     */
+    static String withToken(String text, String token) {
+        return TOKEN_PARAM.matcher(text).replaceAll(Matcher.quoteReplacement("access_token=" + token));
+    }
+
+    private static class CacheEntry {
+        private final String etag;
+        private final String lastModified;
+        private final Map<String, List<String>> headers;
+        private final byte[] body;
+        private final boolean gzipped;
+
+        CacheEntry(String etag, String lastModified, Map<String, List<String>> headers, byte[] body, boolean gzipped) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.headers = headers;
+            this.body = body;
+            this.gzipped = gzipped;
+        }
+
+        GitHubResponse toResponse(Map<String, List<String>> freshHeaders, String token) {
+            Map<String, List<String>> h = new LinkedHashMap<String, List<String>>();
+            //the token used when the response was cached can be already revoked
+            for (Map.Entry<String, List<String>> e : headers.entrySet()) {
+                List<String> values = new ArrayList<String>();
+                for (String v : e.getValue()) {
+                    values.add(withToken(v, token));
+                }
+                h.put(e.getKey(), values);
+            }
+            //fresh rate limit information is more relevant than the cached one
+            for (Map.Entry<String, List<String>> e : freshHeaders.entrySet()) {
+                if (TRANSIENT_HEADERS.contains(e.getKey())) {
+                    h.put(e.getKey(), e.getValue());
+                }
+            }
+            return new GitHubResponse(200, h, body, gzipped);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.shipkit.internal.notes.util;
+
+/**
+ * Simple circuit breaker. After given number of consecutive failures the circuit opens
+ * and stays open for the cool down period. When the cool down is over, single trial call is permitted.
+ * Successful trial closes the circuit, failed trial opens it again.
+ * Thread safe.
+ */
+class CircuitBreaker {
+
+    private final int failureThreshold;
+    private final long coolDownMillis;
+
+    private int consecutiveFailures;
+    private long openedAtMillis;
+    private boolean trialInProgress;
+
+    CircuitBreaker(int failureThreshold, long coolDownMillis) {
+        this.failureThreshold = failureThreshold;
+        this.coolDownMillis = coolDownMillis;
+    }
+
+    /**
+     * Returns true if the call is permitted
+     */
+    synchronized boolean allowRequest() {
+        if (consecutiveFailures < failureThreshold) {
+            return true;
+        }
+        if (currentTimeMillis() - openedAtMillis < coolDownMillis || trialInProgress) {
+            return false;
+        }
+        trialInProgress = true;
+        return true;
+    }
+
+    synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        trialInProgress = false;
+    }
+
+    synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (consecutiveFailures >= failureThreshold) {
+            openedAtMillis = currentTimeMillis();
+        }
+        trialInProgress = false;
+    }
+
+    /**
+     * The call was cancelled (for example the thread was interrupted), it is neither success nor failure.
+     * If it was the trial call, next call can be the trial.
+     */
+    synchronized void recordCancelled() {
+        trialInProgress = false;
+    }
+
+    synchronized boolean isOpen() {
+        return consecutiveFailures >= failureThreshold;
+    }
+
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+}
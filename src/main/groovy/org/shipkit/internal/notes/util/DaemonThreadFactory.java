@@ -0,0 +1,26 @@
+package org.shipkit.internal.notes.util;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates daemon threads with readable names, so that background GitHub requests never keep the JVM alive.
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+
+    private final String namePrefix;
+    private final AtomicInteger count = new AtomicInteger();
+
+    /**
+     * @param namePrefix prefix of thread names, for example: "shipkit-github-page"
+     */
+    public DaemonThreadFactory(String namePrefix) {
+        this.namePrefix = namePrefix;
+    }
+
+    public Thread newThread(Runnable r) {
+        Thread t = new Thread(r, namePrefix + "-" + count.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    }
+}
@@ -0,0 +1,81 @@
+package org.shipkit.internal.notes.util;
+
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.shipkit.internal.notes.internal.DateFormat;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Transport based on {@link HttpURLConnection}.
+ * Negotiates gzip encoding and always consumes and closes the response stream
+ * so that the underlying connection is returned to the JDK keep-alive pool and reused by subsequent requests.
+ */
+class DefaultGitHubTransport implements GitHubTransport {
+
+    private static final Logger LOG = Logging.getLogger(DefaultGitHubTransport.class);
+
+    public GitHubResponse execute(GitHubRequest request) throws IOException {
+        LOG.lifecycle(request.toString());
+        HttpURLConnection c = (HttpURLConnection) new URL(request.getUrl()).openConnection();
+        c.setRequestMethod(request.getMethod());
+        c.setRequestProperty("Accept-Encoding", "gzip");
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+            c.setRequestProperty(header.getKey(), header.getValue());
+        }
+        if (request.getBody() != null) {
+            c.setDoOutput(true);
+            OutputStream out = c.getOutputStream();
+            try {
+                out.write(request.getBody().getBytes("UTF-8"));
+            } finally {
+                IOUtil.close(out);
+            }
+        }
+
+        int status = c.getResponseCode();
+        //for error responses the body is in the error stream, we read it anyway to keep the connection alive
+        InputStream in = status >= 400 ? c.getErrorStream() : c.getInputStream();
+        byte[] body = readBytes(in);
+        boolean gzipped = "gzip".equalsIgnoreCase(c.getContentEncoding());
+
+        GitHubResponse response = new GitHubResponse(status, c.getHeaderFields(), body, gzipped);
+        logRateLimit(response);
+        return response;
+    }
+
+    private static byte[] readBytes(InputStream in) throws IOException {
+        if (in == null) {
+            return new byte[0];
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[8192];
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                out.write(buf, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            IOUtil.close(in);
+        }
+    }
+
+    private static void logRateLimit(GitHubResponse response) {
+        String rateLimitReset = response.getHeader("X-RateLimit-Reset");
+        String resetInLocalTime = "";
+        if (rateLimitReset != null) {
+            Date resetInEpochSeconds = DateFormat.parseDateInEpochSeconds(rateLimitReset);
+            resetInLocalTime = DateFormat.formatDateToLocalTime(resetInEpochSeconds);
+        }
+
+        LOG.info("GitHub API rate info => Remaining : {}, Limit : {}, Reset at: {}",
+                response.getHeader("X-RateLimit-Remaining"),
+                response.getHeader("X-RateLimit-Limit"),
+                resetInLocalTime);
+    }
+}
@@ -0,0 +1,159 @@
+package org.shipkit.internal.notes.util;
+
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.json.simple.JsonArray;
+import org.json.simple.JsonObject;
+import org.json.simple.Jsoner;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Records GitHub API exchanges into a fixture directory or replays them from there, without any network access.
+ * Useful for reproducible debugging of release notes and for running the pipeline where there is no network.
+ * <p>
+ * Recorded data never contains secrets: the auth token is stripped from the url and masked in response headers
+ * (for example in the pagination 'Link' header), request headers are not recorded at all.
+ * Values of time dependent query parameters ('since', 'until') are ignored when matching the requests,
+ * so that incremental syncs can be replayed at a later time.
+ * <p>
+ * The transport is inactive by default, see {@link #record(File)}, {@link #replay(File)} and {@link #off()}.
+ */
+class FixtureGitHubTransport implements GitHubTransport {
+
+    private static final Logger LOG = Logging.getLogger(FixtureGitHubTransport.class);
+
+    //headers that describe given exchange and are not worth recording
+    private static final Set<String> TRANSIENT_HEADERS = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        TRANSIENT_HEADERS.addAll(Arrays.asList("Date", "X-GitHub-Request-Id", "Set-Cookie", "ETag", "Last-Modified"));
+    }
+
+    private final GitHubTransport delegate;
+    private volatile File recordDir;
+    private volatile File replayDir;
+
+    FixtureGitHubTransport(GitHubTransport delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Starts recording exchanges into given directory, existing fixtures for the same requests are overwritten
+     */
+    void record(File dir) {
+        recordDir = dir;
+        replayDir = null;
+    }
+
+    /**
+     * Starts serving responses from given directory, requests are never sent to GitHub
+     */
+    void replay(File dir) {
+        replayDir = dir;
+        recordDir = null;
+    }
+
+    /**
+     * Stops recording or replaying
+     */
+    void off() {
+        recordDir = null;
+        replayDir = null;
+    }
+
+    public GitHubResponse execute(GitHubRequest request) throws IOException {
+        File replay = replayDir;
+        if (replay != null) {
+            return load(replay, request);
+        }
+        GitHubResponse response = delegate.execute(request);
+        File record = recordDir;
+        if (record != null) {
+            store(record, request, response);
+        }
+        return response;
+    }
+
+    private static GitHubResponse load(File dir, GitHubRequest request) throws IOException {
+        String key = fixtureKey(request);
+        File meta = new File(dir, key + ".json");
+        File body = new File(dir, key + ".body");
+        if (!meta.isFile() || !body.isFile()) {
+            throw new IOException("GitHub API exchange was not recorded, unable to replay: " + describe(request) + "\n" +
+                    "  Fixture dir: " + dir + ", expected fixture: " + meta.getName());
+        }
+        try {
+            JsonObject json = (JsonObject) Jsoner.deserialize(IOUtil.readFully(meta));
+            Map<String, List<String>> headers = new LinkedHashMap<String, List<String>>();
+            JsonObject h = (JsonObject) json.get("headers");
+            for (Map.Entry<String, Object> e : h.entrySet()) {
+                List<String> values = new ArrayList<String>();
+                for (Object v : (JsonArray) e.getValue()) {
+                    values.add((String) v);
+                }
+                headers.put(e.getKey(), values);
+            }
+            LOG.info("Replaying GitHub API exchange: {}", describe(request));
+            return new GitHubResponse(json.getInteger("status"), headers,
+                    CachingGitHubTransport.readBytes(body), Boolean.TRUE.equals(json.getBoolean("gzipped")));
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Unable to read GitHub API fixture: " + meta, e);
+        }
+    }
+
+    private static void store(File dir, GitHubRequest request, GitHubResponse response) {
+        Map<String, Object> headers = new LinkedHashMap<String, Object>();
+        for (Map.Entry<String, List<String>> e : response.getHeaders().entrySet()) {
+            if (!TRANSIENT_HEADERS.contains(e.getKey())) {
+                List<String> values = new ArrayList<String>();
+                for (String v : e.getValue()) {
+                    values.add(maskSecrets(v));
+                }
+                headers.put(e.getKey(), new JsonArray(values));
+            }
+        }
+        JsonObject json = new JsonObject();
+        json.put("method", request.getMethod());
+        json.put("url", CachingGitHubTransport.stripToken(request.getUrl()));
+        json.put("requestBody", request.getBody());
+        json.put("status", response.getStatusCode());
+        json.put("gzipped", response.isGzipped());
+        json.put("headers", new JsonObject(headers));
+
+        String key = fixtureKey(request);
+        try {
+            //body first, metadata last, so that partially written fixtures are never picked up
+            IOUtil.writeFileAtomically(new File(dir, key + ".body"), response.getRawBody());
+            IOUtil.writeFileAtomically(new File(dir, key + ".json"), Jsoner.serialize(json).getBytes("UTF-8"));
+            LOG.info("Recorded GitHub API exchange: {}", describe(request));
+        } catch (IOException e) {
+            LOG.warn("Unable to record GitHub API exchange in fixture dir: {}", dir, e);
+        }
+    }
+
+    /**
+     * Fixture key: SHA-1 of the method, the url without the auth token and time dependent parameters, and the body
+     */
+    static String fixtureKey(GitHubRequest request) {
+        String url = CachingGitHubTransport.stripToken(request.getUrl())
+                .replaceAll("([?&](since|until)=)[^&]*", "$1*");
+        String body = request.getBody() == null ? "" : "\n" + request.getBody();
+        return CachingGitHubTransport.cacheKey(request.getMethod() + " " + url + body);
+    }
+
+    /**
+     * Masks the auth token in given text, for example in the urls of the 'Link' header
+     */
+    static String maskSecrets(String text) {
+        return text.replaceAll("access_token=[^&>;\\s]*", "access_token=***");
+    }
+
+    private static String describe(GitHubRequest request) {
+        return request.getMethod() + " " + CachingGitHubTransport.stripToken(request.getUrl());
+    }
+}
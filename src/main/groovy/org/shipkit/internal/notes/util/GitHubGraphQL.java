@@ -0,0 +1,75 @@
+package org.shipkit.internal.notes.util;
+
+import org.json.simple.DeserializationException;
+import org.json.simple.JsonArray;
+import org.json.simple.JsonObject;
+import org.json.simple.Jsoner;
+
+import java.io.IOException;
+
+/**
+ * Executes queries against GitHub GraphQL API (https://developer.github.com/v4/).
+ * Uses the same transport as REST requests, so that rate limiting and retries apply.
+ */
+public class GitHubGraphQL {
+
+    private final String apiUrl;
+    private final String authToken;
+    private final GitHubTransport transport;
+
+    public GitHubGraphQL(String apiUrl, String authToken) {
+        this(apiUrl, authToken, GitHubTransports.getDefault());
+    }
+
+    public GitHubGraphQL(String apiUrl, String authToken, GitHubTransport transport) {
+        this.apiUrl = apiUrl;
+        this.authToken = authToken;
+        this.transport = transport;
+    }
+
+    /**
+     * Executes the query and returns the 'data' element of the response.
+     * Objects that don't exist are reported by GitHub as 'NOT_FOUND' errors and are null in the returned data,
+     * all other errors fail the query.
+     */
+    public JsonObject query(String query) throws IOException, DeserializationException {
+        JsonObject body = new JsonObject();
+        body.put("query", query);
+        GitHubRequest request = GitHubRequest.post(graphQLUrl(apiUrl), Jsoner.serialize(body))
+                .withHeader("Authorization", "bearer " + authToken);
+        GitHubResponse response = transport.execute(request).ensureSuccessful(request);
+
+        JsonObject result = (JsonObject) Jsoner.deserialize(response.getContent());
+        failOnErrors(result);
+        JsonObject data = (JsonObject) result.get("data");
+        if (data == null) {
+            throw new IOException("GitHub GraphQL API did not return any data: " + response.getContent());
+        }
+        return data;
+    }
+
+    private static void failOnErrors(JsonObject result) {
+        JsonArray errors = (JsonArray) result.get("errors");
+        if (errors == null) {
+            return;
+        }
+        for (Object e : errors) {
+            JsonObject error = (JsonObject) e;
+            if (!"NOT_FOUND".equals(error.get("type"))) {
+                throw new IllegalStateException("GitHub GraphQL API returned errors: " + Jsoner.serialize(errors));
+            }
+        }
+    }
+
+    /**
+     * GraphQL endpoint for given REST API url, works for GitHub.com and GitHub Enterprise:
+     * "https://api.github.com" -> "https://api.github.com/graphql",
+     * "https://github.company.com/api/v3" -> "https://github.company.com/api/graphql"
+     */
+    public static String graphQLUrl(String apiUrl) {
+        if (apiUrl.endsWith("/v3")) {
+            return apiUrl.substring(0, apiUrl.length() - "/v3".length()) + "/graphql";
+        }
+        return apiUrl + "/graphql";
+    }
+}
@@ -5,62 +5,181 @@ import org.gradle.api.logging.Logging;
 import org.json.simple.DeserializationException;
 import org.json.simple.JsonObject;
 import org.json.simple.Jsoner;
-import org.shipkit.internal.notes.internal.DateFormat;
 
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URL;
-import java.net.URLConnection;
-import java.util.Date;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * This class contains standard operations for skim over GitHub API responses.
+ * <p>
+ * By default pages are fetched one by one, following the 'next' relative link.
+ * When concurrency is greater than 1, the 'last' relative link of the first page is used
+ * to fetch the remaining pages in parallel, keeping at most 'concurrency' pages in flight.
+ * Pages are always returned in order.
+ * <p>
+ * When fetching a page fails, the exception is thrown and the fetcher stays positioned at the failed page.
+ * Calling {@link #nextPage()} again resumes from the page that failed, pages fetched earlier are not repeated.
  */
 public class GitHubListFetcher {
 
     private static final Logger LOG = Logging.getLogger(GitHubListFetcher.class);
 
+    /**
+     * Sensible number of concurrent page requests, GitHub does not like too many parallel requests.
+     */
+    public static final int DEFAULT_CONCURRENCY = 4;
+
     private static final String RELATIVE_LINK_NOT_FOUND = "none";
+    private static final Pattern PAGE_PARAM = Pattern.compile("([?&])page=(\\d+)");
+
+    private final int concurrency;
+    private final GitHubTransport transport;
+    private final JsonProjection projection;
     private String nextPageUrl;
 
+    //used only in concurrent mode, after the first page was fetched
+    private final LinkedList<String> pendingPageUrls = new LinkedList<String>();
+    private final LinkedList<Future<List<JsonObject>>> pagesInFlight = new LinkedList<Future<List<JsonObject>>>();
+    private final LinkedList<String> pageUrlsInFlight = new LinkedList<String>();
+    private ExecutorService executor;
+
     public GitHubListFetcher(String nextPageUrl) {
+        this(nextPageUrl, 1);
+    }
+
+    /**
+     * @param nextPageUrl url of the first page
+     * @param concurrency max number of pages fetched in parallel, 1 means that pages are fetched sequentially
+     */
+    public GitHubListFetcher(String nextPageUrl, int concurrency) {
+        this(nextPageUrl, concurrency, null, GitHubTransports.getDefault());
+    }
+
+    /**
+     * @param nextPageUrl url of the first page
+     * @param concurrency max number of pages fetched in parallel, 1 means that pages are fetched sequentially
+     * @param projection fields of the returned objects we are interested in, other fields are skipped while parsing.
+     *                   Null means that we want all fields.
+     */
+    public GitHubListFetcher(String nextPageUrl, int concurrency, JsonProjection projection) {
+        this(nextPageUrl, concurrency, projection, GitHubTransports.getDefault());
+    }
+
+    /**
+     * @param nextPageUrl url of the first page
+     * @param concurrency max number of pages fetched in parallel, 1 means that pages are fetched sequentially
+     * @param projection fields of the returned objects we are interested in, null means all fields
+     * @param transport transport used to send the requests
+     */
+    public GitHubListFetcher(String nextPageUrl, int concurrency, JsonProjection projection, GitHubTransport transport) {
         this.nextPageUrl = nextPageUrl;
+        this.concurrency = concurrency;
+        this.projection = projection;
+        this.transport = transport;
     }
 
     public boolean hasNextPage() {
-        return !RELATIVE_LINK_NOT_FOUND.equals(nextPageUrl);
+        return !RELATIVE_LINK_NOT_FOUND.equals(nextPageUrl) || !pagesInFlight.isEmpty() || !pendingPageUrls.isEmpty();
     }
 
     public List<JsonObject> nextPage() throws IOException, DeserializationException {
+        if (!pagesInFlight.isEmpty() || !pendingPageUrls.isEmpty()) {
+            return nextConcurrentPage();
+        }
         if(RELATIVE_LINK_NOT_FOUND.equals(nextPageUrl)) {
             throw new IllegalStateException("GitHub API no more issues to fetch");
         }
-        URL url = new URL(nextPageUrl);
-        LOG.info("GitHub API querying page {}", queryParamValue(url, "page"));
-        LOG.lifecycle("GET " + nextPageUrl);
-        URLConnection urlConnection = url.openConnection();
-        LOG.info("Established connection to GitHub API");
+        GitHubResponse response = fetch(nextPageUrl);
+        String linkHeader = response.getHeader("Link");
+        nextPageUrl = extractRelativeLink(linkHeader, "next");
 
-        String resetInLocalTime = resetLimitInLocalTimeOrEmpty(urlConnection);
+        if (concurrency > 1 && !RELATIVE_LINK_NOT_FOUND.equals(nextPageUrl)) {
+            scheduleRemainingPages(nextPageUrl, extractRelativeLink(linkHeader, "last"));
+        }
 
-        LOG.info("GitHub API rate info => Remaining : {}, Limit : {}, Reset at: {}",
-                urlConnection.getHeaderField("X-RateLimit-Remaining"),
-                urlConnection.getHeaderField("X-RateLimit-Limit"),
-                resetInLocalTime);
-        nextPageUrl = extractRelativeLink(urlConnection.getHeaderField("Link"), "next");
+        return parseJsonFrom(response);
+    }
 
-        return parseJsonFrom(urlConnection);
+    private void scheduleRemainingPages(String nextUrl, String lastUrl) {
+        int nextPage = pageNumber(nextUrl);
+        int lastPage = pageNumber(lastUrl);
+        if (nextPage < 0 || lastPage < nextPage) {
+            //cannot figure out the page range, continue sequentially
+            return;
+        }
+        LOG.info("GitHub API fetching pages {}-{} using {} concurrent requests", nextPage, lastPage, concurrency);
+        for (int page = nextPage; page <= lastPage; page++) {
+            pendingPageUrls.add(withPage(lastUrl, page));
+        }
+        nextPageUrl = RELATIVE_LINK_NOT_FOUND;
     }
 
-    private String resetLimitInLocalTimeOrEmpty(URLConnection urlConnection) {
-        String rateLimitReset = urlConnection.getHeaderField("X-RateLimit-Reset");
-        if(rateLimitReset == null) {
-            return "";
+    private List<JsonObject> nextConcurrentPage() throws IOException, DeserializationException {
+        //keep the window full so that the requests overlap with the consumption of pages
+        while (pagesInFlight.size() < concurrency && !pendingPageUrls.isEmpty()) {
+            final String url = pendingPageUrls.removeFirst();
+            pageUrlsInFlight.add(url);
+            pagesInFlight.add(getExecutor().submit(new Callable<List<JsonObject>>() {
+                public List<JsonObject> call() throws Exception {
+                    return parseJsonFrom(fetch(url));
+                }
+            }));
+        }
+        Future<List<JsonObject>> page = pagesInFlight.getFirst();
+        try {
+            List<JsonObject> result = page.get();
+            pagesInFlight.removeFirst();
+            pageUrlsInFlight.removeFirst();
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for GitHub API page");
+        } catch (ExecutionException e) {
+            rewindToFailedPage();
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof DeserializationException) {
+                throw (DeserializationException) cause;
+            }
+            throw new RuntimeException("Problems fetching page from GitHub API", cause);
         }
-        Date resetInEpochSeconds = DateFormat.parseDateInEpochSeconds(rateLimitReset);
-        return DateFormat.formatDateToLocalTime(resetInEpochSeconds);
+    }
+
+    /**
+     * Puts the failed page and all pages in flight back to the pending queue, so that we can resume from the failed page
+     */
+    private void rewindToFailedPage() {
+        for (Future<List<JsonObject>> f : pagesInFlight) {
+            f.cancel(true);
+        }
+        pagesInFlight.clear();
+        pendingPageUrls.addAll(0, pageUrlsInFlight);
+        pageUrlsInFlight.clear();
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            ThreadPoolExecutor e = new ThreadPoolExecutor(concurrency, concurrency, 5, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory("shipkit-github-page"));
+            //idle threads go away when the client stops consuming pages early (e.g. all tickets were found)
+            e.allowCoreThreadTimeOut(true);
+            executor = e;
+        }
+        return executor;
+    }
+
+    private GitHubResponse fetch(String pageUrl) throws IOException {
+        LOG.info("GitHub API querying page {}", queryParamValue(new URL(pageUrl), "page"));
+        GitHubRequest request = GitHubRequest.get(pageUrl);
+        return transport.execute(request).ensureSuccessful(request);
     }
 
     private String queryParamValue(URL url, String page) {
@@ -73,20 +192,51 @@ public class GitHubListFetcher {
         return "N/A";
     }
 
-    private List<JsonObject> parseJsonFrom(URLConnection urlConnection) throws IOException, DeserializationException {
-        InputStream response = urlConnection.getInputStream();
-
+    private List<JsonObject> parseJsonFrom(GitHubResponse response) throws IOException, DeserializationException {
         LOG.info("Reading remote stream from GitHub API");
-        String content = IOUtil.readFully(response);
+        List<JsonObject> issues;
+        if (projection != null) {
+            //streaming straight from the (decompressed) body, keeping only the fields we need
+            issues = new ProjectingJsonReader(response.openStream(), projection).readArray();
+        } else {
+            String content = response.getContent();
+            @SuppressWarnings("unchecked")
+            List<JsonObject> all = (List<JsonObject>) Jsoner.deserialize(content);
+            issues = all;
+        }
         LOG.info("GitHub API responded successfully.");
-        @SuppressWarnings("unchecked")
-        List<JsonObject> issues = (List<JsonObject>) Jsoner.deserialize(content);
         LOG.info("GitHub API returned {} Json objects.", issues.size());
         return issues;
     }
 
+    /**
+     * Number of the last page according to the 'last' relative link of given response, 1 if there is no such link
+     */
+    public static int lastPage(GitHubResponse response) {
+        String lastUrl = extractRelativeLink(response.getHeader("Link"), "last");
+        return RELATIVE_LINK_NOT_FOUND.equals(lastUrl) ? 1 : Math.max(1, pageNumber(lastUrl));
+    }
+
+    /**
+     * Returns the value of 'page' query parameter or -1 if there is no such parameter
+     */
+    static int pageNumber(String url) {
+        Matcher m = PAGE_PARAM.matcher(url);
+        return m.find() ? Integer.parseInt(m.group(2)) : -1;
+    }
+
+    /**
+     * Replaces the value of 'page' query parameter
+     */
+    static String withPage(String url, int page) {
+        Matcher m = PAGE_PARAM.matcher(url);
+        if (!m.find()) {
+            throw new IllegalArgumentException("Url does not have 'page' query parameter: " + url);
+        }
+        return url.substring(0, m.start()) + m.group(1) + "page=" + page + url.substring(m.end());
+    }
 
-    private String extractRelativeLink(String linkHeader, final String relativeType) {
+    static String extractRelativeLink(String linkHeader, final String relativeType) {
         if (linkHeader == null) {
             return RELATIVE_LINK_NOT_FOUND;
         }
@@ -5,12 +5,8 @@ import org.gradle.api.logging.Logging;
 import org.json.simple.DeserializationException;
 import org.json.simple.JsonObject;
 import org.json.simple.Jsoner;
-import org.shipkit.internal.notes.internal.DateFormat;
 
 import java.io.*;
-import java.net.URL;
-import java.net.URLConnection;
-import java.util.Date;
 
 /**
  * This class contains a standard operation for fetching single page for GitHub.
@@ -22,41 +18,29 @@ public class GitHubObjectFetcher {
 
     private final String pageUrl;
     private final String authToken;
+    private final GitHubTransport transport;
 
     public GitHubObjectFetcher(String pageUrl, String authToken) {
+        this(pageUrl, authToken, GitHubTransports.getDefault());
+    }
+
+    public GitHubObjectFetcher(String pageUrl, String authToken, GitHubTransport transport) {
         this.pageUrl = pageUrl;
         this.authToken = authToken;
+        this.transport = transport;
     }
 
     public JsonObject getPage() throws IOException, DeserializationException {
-        URL url = new URL(String.format("%s%s%s", pageUrl, "?access_token=", authToken));
+        String url = String.format("%s%s%s", pageUrl, "?access_token=", authToken);
         LOG.info("GitHub API querying page {}", url);
-        LOG.lifecycle("GET {}", url);
-        URLConnection urlConnection = url.openConnection();
-
-        String resetInLocalTime = resetLimitInLocalTimeOrEmpty(urlConnection);
-
-        LOG.info("GitHub API rate info => Remaining : {}, Limit : {}, Reset at: {}",
-                urlConnection.getHeaderField("X-RateLimit-Remaining"),
-                urlConnection.getHeaderField("X-RateLimit-Limit"),
-                resetInLocalTime);
+        GitHubRequest request = GitHubRequest.get(url);
+        GitHubResponse response = transport.execute(request).ensureSuccessful(request);
 
-        return parseJsonFrom(urlConnection);
+        return parseJsonFrom(response);
     }
 
-    private String resetLimitInLocalTimeOrEmpty(URLConnection urlConnection) {
-        String rateLimitReset = urlConnection.getHeaderField("X-RateLimit-Reset");
-        if(rateLimitReset == null) {
-            return "";
-        }
-        Date resetInEpochSeconds = DateFormat.parseDateInEpochSeconds(rateLimitReset);
-        return DateFormat.formatDateToLocalTime(resetInEpochSeconds);
-    }
-
-    private JsonObject parseJsonFrom(URLConnection urlConnection) throws IOException, DeserializationException {
-        InputStream response = urlConnection.getInputStream();
-
-        String content = IOUtil.readFully(response);
+    private JsonObject parseJsonFrom(GitHubResponse response) throws IOException, DeserializationException {
+        String content = response.getContent();
         LOG.info("GitHub API responded successfully.");
 
         return (JsonObject) Jsoner.deserialize(content);
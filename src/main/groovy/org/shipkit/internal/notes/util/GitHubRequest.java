@@ -0,0 +1,76 @@
+package org.shipkit.internal.notes.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable request to the GitHub API
+ */
+public class GitHubRequest {
+
+    private final String method;
+    private final String url;
+    private final Map<String, String> headers;
+    private final String body;
+
+    private GitHubRequest(String method, String url, Map<String, String> headers, String body) {
+        this.method = method;
+        this.url = url;
+        this.headers = Collections.unmodifiableMap(headers);
+        this.body = body;
+    }
+
+    /**
+     * Creates GET request for given url
+     */
+    public static GitHubRequest get(String url) {
+        return new GitHubRequest("GET", url, new LinkedHashMap<String, String>(), null);
+    }
+
+    /**
+     * Creates POST request with given body, for example a GraphQL query
+     */
+    public static GitHubRequest post(String url, String body) {
+        return new GitHubRequest("POST", url, new LinkedHashMap<String, String>(), body);
+    }
+
+    /**
+     * Returns a copy of this request with extra request header
+     */
+    public GitHubRequest withHeader(String name, String value) {
+        Map<String, String> h = new LinkedHashMap<String, String>(headers);
+        h.put(name, value);
+        return new GitHubRequest(method, url, h, body);
+    }
+
+    /**
+     * Http method, for example "GET"
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Extra request headers, on top of the ones that the transport adds by default
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Request body, null if there is no body
+     */
+    public String getBody() {
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + url;
+    }
+}
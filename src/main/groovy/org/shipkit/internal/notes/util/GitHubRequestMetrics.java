@@ -0,0 +1,293 @@
+package org.shipkit.internal.notes.util;
+
+import org.json.simple.JsonArray;
+import org.json.simple.JsonObject;
+import org.json.simple.Jsoner;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.*;
+
+/**
+ * Metrics of GitHub API requests made during the build.
+ * Lets us track the cost of the release in terms of GitHub API calls and catch regressions,
+ * see {@link #writeReport(File)}.
+ * Thread safe.
+ */
+public class GitHubRequestMetrics {
+
+    /**
+     * Response served from memory or disk, no network call was made
+     */
+    public static final String CACHE_HIT = "hit";
+
+    /**
+     * Cached response confirmed by GitHub with '304 Not Modified', does not count against the rate limit
+     */
+    public static final String CACHE_REVALIDATED = "revalidated";
+
+    /**
+     * Response fetched from GitHub
+     */
+    public static final String CACHE_MISS = "miss";
+
+    private final List<Request> requests = new ArrayList<Request>();
+
+    void record(Request request) {
+        synchronized (requests) {
+            requests.add(request);
+        }
+    }
+
+    /**
+     * Requests recorded so far, in the order they completed
+     */
+    public List<Request> getRequests() {
+        synchronized (requests) {
+            return new ArrayList<Request>(requests);
+        }
+    }
+
+    /**
+     * Discards recorded requests
+     */
+    public void reset() {
+        synchronized (requests) {
+            requests.clear();
+        }
+    }
+
+    /**
+     * Writes 'github-api-metrics.json' and human readable 'github-api-metrics.txt' reports to given directory.
+     * Does nothing if there were no requests.
+     */
+    public void writeReport(File dir) throws IOException {
+        List<Request> r = getRequests();
+        if (r.isEmpty()) {
+            return;
+        }
+        IOUtil.writeFileAtomically(new File(dir, "github-api-metrics.json"), Jsoner.serialize(toJson(r)).getBytes("UTF-8"));
+        IOUtil.writeFileAtomically(new File(dir, "github-api-metrics.txt"), toSummary(r).getBytes("UTF-8"));
+    }
+
+    static JsonObject toJson(List<Request> requests) {
+        JsonArray items = new JsonArray();
+        for (Request r : requests) {
+            JsonObject item = new JsonObject();
+            item.put("method", r.getMethod());
+            item.put("endpoint", r.getEndpoint());
+            item.put("latencyMillis", r.getLatencyMillis());
+            item.put("bytes", r.getBytes());
+            item.put("cache", r.getCache());
+            item.put("status", r.getStatus());
+            item.put("networkCalls", r.getNetworkCalls());
+            item.put("rateLimitRemaining", r.getRateLimitRemaining());
+            item.put("rateLimitConsumed", r.getRateLimitConsumed());
+            items.add(item);
+        }
+        Totals totals = new Totals();
+        for (Request r : requests) {
+            totals.add(r);
+        }
+        JsonObject json = new JsonObject();
+        json.put("requests", totals.requests);
+        json.put("networkCalls", totals.networkCalls);
+        json.put("cacheHits", totals.hits);
+        json.put("cacheRevalidated", totals.revalidated);
+        json.put("cacheMisses", totals.misses);
+        json.put("bytes", totals.bytes);
+        json.put("latencyMillis", totals.latencyMillis);
+        json.put("rateLimitConsumed", totals.rateLimitConsumed);
+        json.put("rateLimitRemaining", totals.rateLimitRemaining);
+        json.put("items", items);
+        return json;
+    }
+
+    static String toSummary(List<Request> requests) {
+        Totals all = new Totals();
+        Map<String, Totals> byEndpoint = new TreeMap<String, Totals>();
+        for (Request r : requests) {
+            all.add(r);
+            String endpoint = r.getMethod() + " " + r.getEndpoint();
+            Totals t = byEndpoint.get(endpoint);
+            if (t == null) {
+                t = new Totals();
+                byEndpoint.put(endpoint, t);
+            }
+            t.add(r);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("GitHub API requests: ").append(all.requests)
+                .append(" (hits: ").append(all.hits)
+                .append(", revalidated: ").append(all.revalidated)
+                .append(", misses: ").append(all.misses)
+                .append(", network calls: ").append(all.networkCalls).append(")\n");
+        sb.append("Bytes: ").append(all.bytes).append(", total latency: ").append(all.latencyMillis).append(" ms\n");
+        sb.append("Rate limit consumed: ").append(all.rateLimitConsumed)
+                .append(", remaining: ").append(all.rateLimitRemaining == null ? "unknown" : all.rateLimitRemaining).append("\n\n");
+        sb.append(String.format("%-60s %8s %6s %6s %6s %10s %10s%n", "Endpoint", "Requests", "Hits", "Reval", "Misses", "Bytes", "Time (ms)"));
+        for (Map.Entry<String, Totals> e : byEndpoint.entrySet()) {
+            Totals t = e.getValue();
+            sb.append(String.format("%-60s %8d %6d %6d %6d %10d %10d%n", e.getKey(),
+                    t.requests, t.hits, t.revalidated, t.misses, t.bytes, t.latencyMillis));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Endpoint class of the url, for example "/repos/{owner}/{repo}/issues/{number}".
+     * Query string, repository coordinates, user logins, numbers and commit ids are replaced with placeholders
+     * so that requests to the same kind of resource are reported together.
+     */
+    static String endpointOf(String url) {
+        String path;
+        try {
+            path = new URL(url).getPath();
+        } catch (MalformedURLException e) {
+            path = url.replaceAll("\\?.*", "");
+        }
+        String[] segments = path.split("/");
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < segments.length; i++) {
+            String s = segments[i];
+            if (s.isEmpty()) {
+                continue;
+            }
+            String previous = i > 0 ? segments[i - 1] : "";
+            if ("repos".equals(previous)) {
+                s = "{owner}";
+            } else if (i > 1 && "repos".equals(segments[i - 2])) {
+                s = "{repo}";
+            } else if ("users".equals(previous)) {
+                s = "{user}";
+            } else if (s.matches("\\d+")) {
+                s = "{number}";
+            } else if (s.matches("[0-9a-f]{40}")) {
+                s = "{sha}";
+            }
+            sb.append("/").append(s);
+        }
+        return sb.length() == 0 ? "/" : sb.toString();
+    }
+
+    private static class Totals {
+        int requests;
+        int hits;
+        int revalidated;
+        int misses;
+        int networkCalls;
+        long bytes;
+        long latencyMillis;
+        int rateLimitConsumed;
+        Integer rateLimitRemaining;
+
+        void add(Request r) {
+            requests++;
+            if (CACHE_HIT.equals(r.getCache())) {
+                hits++;
+            } else if (CACHE_REVALIDATED.equals(r.getCache())) {
+                revalidated++;
+            } else {
+                misses++;
+            }
+            networkCalls += r.getNetworkCalls();
+            bytes += r.getBytes();
+            latencyMillis += r.getLatencyMillis();
+            rateLimitConsumed += r.getRateLimitConsumed();
+            if (r.getRateLimitRemaining() != null
+                    && (rateLimitRemaining == null || r.getRateLimitRemaining() < rateLimitRemaining)) {
+                rateLimitRemaining = r.getRateLimitRemaining();
+            }
+        }
+    }
+
+    /**
+     * Single GitHub API request, as seen by the caller
+     */
+    public static class Request {
+
+        private final String method;
+        private final String endpoint;
+        private final long latencyMillis;
+        private final long bytes;
+        private final String cache;
+        private final int status;
+        private final int networkCalls;
+        private final Integer rateLimitRemaining;
+        private final int rateLimitConsumed;
+
+        Request(String method, String endpoint, long latencyMillis, long bytes, String cache, int status,
+                int networkCalls, Integer rateLimitRemaining, int rateLimitConsumed) {
+            this.method = method;
+            this.endpoint = endpoint;
+            this.latencyMillis = latencyMillis;
+            this.bytes = bytes;
+            this.cache = cache;
+            this.status = status;
+            this.networkCalls = networkCalls;
+            this.rateLimitRemaining = rateLimitRemaining;
+            this.rateLimitConsumed = rateLimitConsumed;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        /**
+         * Endpoint class, see {@link GitHubRequestMetrics#endpointOf(String)}
+         */
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public long getLatencyMillis() {
+            return latencyMillis;
+        }
+
+        /**
+         * Size of the response body, as sent over the wire
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * One of {@link GitHubRequestMetrics#CACHE_HIT}, {@link GitHubRequestMetrics#CACHE_REVALIDATED},
+         * {@link GitHubRequestMetrics#CACHE_MISS}
+         */
+        public String getCache() {
+            return cache;
+        }
+
+        /**
+         * Http status code, 0 if the request failed without a response
+         */
+        public int getStatus() {
+            return status;
+        }
+
+        /**
+         * Number of http calls made to GitHub, including retries
+         */
+        public int getNetworkCalls() {
+            return networkCalls;
+        }
+
+        /**
+         * Value of 'X-RateLimit-Remaining' header of the last network call, null if unknown
+         */
+        public Integer getRateLimitRemaining() {
+            return rateLimitRemaining;
+        }
+
+        /**
+         * Number of network calls that counted against the rate limit
+         */
+        public int getRateLimitConsumed() {
+            return rateLimitConsumed;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.shipkit.internal.notes.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Response from the GitHub API.
+ * The body is kept the way it was sent over the wire (possibly gzipped) and it is decompressed on demand.
+ */
+public class GitHubResponse {
+
+    private final int statusCode;
+    private final Map<String, List<String>> headers;
+    private final byte[] body;
+    private final boolean gzipped;
+
+    /**
+     * @param statusCode http status code
+     * @param headers response headers, header names are treated case insensitive
+     * @param body raw response body, as sent over the wire
+     * @param gzipped whether the body is gzipped
+     */
+    public GitHubResponse(int statusCode, Map<String, List<String>> headers, byte[] body, boolean gzipped) {
+        this.statusCode = statusCode;
+        this.headers = new TreeMap<String, List<String>>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, List<String>> e : headers.entrySet()) {
+            //HttpURLConnection uses null key for the status line
+            if (e.getKey() != null) {
+                this.headers.put(e.getKey(), e.getValue());
+            }
+        }
+        this.body = body;
+        this.gzipped = gzipped;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * True if the status code is 2xx
+     */
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    /**
+     * Throws IOException if the response is not successful, see {@link #isSuccessful()}
+     *
+     * @param request the request this response was returned for, used in the exception message (without the auth token)
+     * @return this response
+     */
+    public GitHubResponse ensureSuccessful(GitHubRequest request) throws IOException {
+        if (!isSuccessful()) {
+            throw new IOException("GitHub API responded with status code " + statusCode + " for "
+                    + request.getMethod() + " " + CachingGitHubTransport.stripToken(request.getUrl()) + "\n  Response: " + getContent());
+        }
+        return this;
+    }
+
+    /**
+     * First value of given response header, null if header is not present
+     */
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * All response headers, header names are case insensitive
+     */
+    public Map<String, List<String>> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    /**
+     * Raw body, as sent over the wire
+     */
+    public byte[] getRawBody() {
+        return body;
+    }
+
+    /**
+     * Whether the raw body is gzipped
+     */
+    public boolean isGzipped() {
+        return gzipped;
+    }
+
+    /**
+     * Opens new stream with the decompressed body
+     */
+    public InputStream openStream() throws IOException {
+        InputStream in = new ByteArrayInputStream(body);
+        return gzipped ? new GZIPInputStream(in) : in;
+    }
+
+    /**
+     * Decompressed body as UTF-8 text
+     */
+    public String getContent() throws IOException {
+        return IOUtil.readFully(openStream());
+    }
+}
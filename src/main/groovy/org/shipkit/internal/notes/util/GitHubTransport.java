@@ -0,0 +1,17 @@
+package org.shipkit.internal.notes.util;
+
+import java.io.IOException;
+
+/**
+ * Performs http requests to the GitHub API.
+ * Implementations must be thread safe, the transport is shared by all GitHub fetchers.
+ */
+public interface GitHubTransport {
+
+    /**
+     * Executes the request and returns the response, regardless of the status code.
+     *
+     * @throws IOException when there are problems communicating with GitHub
+     */
+    GitHubResponse execute(GitHubRequest request) throws IOException;
+}
@@ -0,0 +1,168 @@
+package org.shipkit.internal.notes.util;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * GitHub transport services
+ */
+public class GitHubTransports {
+
+    /**
+     * Max number of concurrent requests to GitHub, in the entire build
+     */
+    static final int MAX_CONCURRENT_REQUESTS = 8;
+
+    private static final int MAX_ATTEMPTS = 4;
+    private static final long RETRY_BASE_DELAY_MILLIS = 1000;
+    private static final int CIRCUIT_FAILURE_THRESHOLD = 8;
+    private static final long CIRCUIT_COOL_DOWN_MILLIS = 30 * 1000;
+
+    private static final GitHubRequestMetrics METRICS = new GitHubRequestMetrics();
+
+    private static MemoizingGitHubTransport memoizingTransport;
+    private static FixtureGitHubTransport fixtureTransport;
+    private static GitHubTransport defaultTransport;
+    //empty Shipkit cache dir used while recording or replaying fixtures, see {@link #getShipkitCacheDir()}
+    private static File fixtureCacheDir;
+
+    /**
+     * Transport shared by all GitHub fetchers (tickets, contributors, commits, users).
+     * Sharing one transport lets us reuse keep-alive connections across fetchers
+     * instead of paying for new TLS handshake for every request.
+     * Responses are cached on disk in the Gradle user home, see {@link #getCacheDir()}.
+     * All requests go through single rate limit governor, see {@link RateLimitingGitHubTransport}.
+     * Transient failures are retried, see {@link RetryingGitHubTransport}.
+     * Within the build, the same resource is fetched only once, see {@link #beginBuild()}.
+     * Every request is recorded in build metrics, see {@link #getMetrics()}.
+     */
+    public static synchronized GitHubTransport getDefault() {
+        if (defaultTransport == null) {
+            defaultTransport = new MeteringGitHubTransport(getMemoizingTransport(), METRICS);
+        }
+        return defaultTransport;
+    }
+
+    private static synchronized MemoizingGitHubTransport getMemoizingTransport() {
+        if (memoizingTransport == null) {
+            GitHubTransport http = MeteringGitHubTransport.network(new DefaultGitHubTransport());
+            GitHubTransport governed = new RateLimitingGitHubTransport(http, MAX_CONCURRENT_REQUESTS);
+            GitHubTransport retrying = new RetryingGitHubTransport(governed,
+                    new CircuitBreaker(CIRCUIT_FAILURE_THRESHOLD, CIRCUIT_COOL_DOWN_MILLIS), MAX_ATTEMPTS, RETRY_BASE_DELAY_MILLIS);
+            GitHubTransport caching = new CachingGitHubTransport(retrying, getCacheDir());
+            fixtureTransport = new FixtureGitHubTransport(caching);
+            memoizingTransport = new MemoizingGitHubTransport(fixtureTransport);
+        }
+        return memoizingTransport;
+    }
+
+    /**
+     * Metrics of GitHub API requests made by the current build, reset by {@link #beginBuild()}
+     */
+    public static GitHubRequestMetrics getMetrics() {
+        return METRICS;
+    }
+
+    /**
+     * Starts remembering GitHub responses in memory, until {@link #endBuild()}.
+     * Tasks of the build that need the same GitHub resource (the same users, the same commit pages)
+     * will fetch it only once.
+     */
+    public static void beginBuild() {
+        METRICS.reset();
+        getMemoizingTransport().begin();
+    }
+
+    /**
+     * Records all GitHub API exchanges of the current build into given fixture directory, until {@link #endBuild()}.
+     * Secrets are masked, see {@link FixtureGitHubTransport}.
+     */
+    public static synchronized void recordFixtures(File dir) {
+        getMemoizingTransport();
+        fixtureTransport.record(dir);
+        useEmptyShipkitCacheDir();
+    }
+
+    /**
+     * Serves all GitHub API requests of the current build from given fixture directory, until {@link #endBuild()}.
+     * No request is sent to GitHub, requests that were not recorded fail.
+     */
+    public static synchronized void replayFixtures(File dir) {
+        getMemoizingTransport();
+        fixtureTransport.replay(dir);
+        useEmptyShipkitCacheDir();
+    }
+
+    /**
+     * Whether GitHub API exchanges of the current build are recorded or replayed, see {@link #recordFixtures(File)}.
+     * Persistent state that decides which requests are made (like the contributors sync state) must not be used then.
+     */
+    public static synchronized boolean isUsingFixtures() {
+        return fixtureCacheDir != null;
+    }
+
+    /**
+     * Which requests the fetchers make depends on the data cached by previous builds (ticket store, user names).
+     * A recording made with warm caches would contain only the delta requests and could not be replayed on a clean machine.
+     * Hence, while recording or replaying, the fetchers get a fresh, empty cache dir.
+     */
+    private static void useEmptyShipkitCacheDir() {
+        deleteFixtureCacheDir();
+        try {
+            File dir = File.createTempFile("shipkit-fixtures-cache", "");
+            if (!dir.delete() || !dir.mkdirs()) {
+                throw new IOException("Unable to create directory " + dir);
+            }
+            fixtureCacheDir = dir;
+        } catch (IOException e) {
+            throw new RuntimeException("Problems creating temporary Shipkit cache dir for GitHub API fixtures", e);
+        }
+    }
+
+    private static void deleteFixtureCacheDir() {
+        if (fixtureCacheDir != null) {
+            IOUtil.deleteDirectory(fixtureCacheDir);
+            fixtureCacheDir = null;
+        }
+    }
+
+    /**
+     * Discards GitHub responses remembered during the build, the data must not leak to the next build in the daemon.
+     * Stops recording or replaying fixtures.
+     */
+    public static synchronized void endBuild() {
+        getMemoizingTransport().end();
+        fixtureTransport.off();
+        deleteFixtureCacheDir();
+    }
+
+    /**
+     * Directory with cached GitHub API responses, it is located in the Gradle user home
+     * so that the cache is reused by all builds on the machine.
+     */
+    public static File getCacheDir() {
+        return new File(getShipkitCacheDir(), "github-api");
+    }
+
+    /**
+     * Root directory for data Shipkit caches between builds, located in the Gradle user home.
+     * While recording or replaying fixtures it is an empty temporary dir, see {@link #isUsingFixtures()}.
+     */
+    public static synchronized File getShipkitCacheDir() {
+        if (fixtureCacheDir != null) {
+            return fixtureCacheDir;
+        }
+        return new File(getGradleUserHome(), "caches/shipkit");
+    }
+
+    private static File getGradleUserHome() {
+        String home = System.getProperty("gradle.user.home");
+        if (home == null) {
+            home = System.getenv("GRADLE_USER_HOME");
+        }
+        if (home == null) {
+            return new File(System.getProperty("user.home"), ".gradle");
+        }
+        return new File(home);
+    }
+}
@@ -68,6 +68,23 @@ public class IOUtil {
         }
     }
 
+    /**
+     * Deletes the directory with all its content, problems are ignored
+     */
+    public static void deleteDirectory(File dir) {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                if (f.isDirectory()) {
+                    deleteDirectory(f);
+                } else {
+                    f.delete();
+                }
+            }
+        }
+        dir.delete();
+    }
+
     /**
      * Downloads resource and saves it to a given file
      * @param url location of resource to download
@@ -113,6 +130,26 @@ public class IOUtil {
         }
     }
 
+    /**
+     * Writes the content to a temporary file first and then moves it to the target,
+     * so that concurrent readers never see partially written file.
+     */
+    public static void writeFileAtomically(File target, byte[] content) throws IOException {
+        createParentDirectory(target);
+        File tmp = File.createTempFile(target.getName(), ".tmp", target.getParentFile());
+        OutputStream out = new FileOutputStream(tmp);
+        try {
+            out.write(content);
+        } finally {
+            close(out);
+        }
+        target.delete();
+        if (!tmp.renameTo(target)) {
+            tmp.delete();
+            throw new IOException("Unable to move " + tmp + " to " + target);
+        }
+    }
+
     public static void writeFile(File target, String content) {
         PrintWriter p = null;
         try {
@@ -0,0 +1,58 @@
+package org.shipkit.internal.notes.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Describes which fields of Json objects we are interested in.
+ * Fields are described using paths, nested fields are separated with a dot, arrays are transparent.
+ * For example, for GitHub issues: "number", "title", "labels.name".
+ * Values of fields without nested paths (like "title") are kept in full.
+ * <p>
+ * See {@link ProjectingJsonReader}
+ */
+public class JsonProjection {
+
+    private final Map<String, JsonProjection> fields = new HashMap<String, JsonProjection>();
+
+    private JsonProjection() {
+    }
+
+    /**
+     * Creates projection with given field paths, e.g. "number", "labels.name"
+     */
+    public static JsonProjection of(String ... paths) {
+        JsonProjection root = new JsonProjection();
+        for (String path : paths) {
+            JsonProjection current = root;
+            for (String name : path.split("\\.")) {
+                JsonProjection child = current.fields.get(name);
+                if (child == null) {
+                    child = new JsonProjection();
+                    current.fields.put(name, child);
+                }
+                current = child;
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Returns projection for given field or null if the field is not projected
+     */
+    JsonProjection field(String name) {
+        return fields.get(name);
+    }
+
+    /**
+     * True if the value should be kept in full
+     */
+    boolean isLeaf() {
+        return fields.isEmpty();
+    }
+
+    Map<String, JsonProjection> getFields() {
+        return Collections.unmodifiableMap(fields);
+    }
+}
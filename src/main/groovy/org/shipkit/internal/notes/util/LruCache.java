@@ -0,0 +1,42 @@
+package org.shipkit.internal.notes.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thread safe, size bounded in-memory cache. When the cache is full, the least recently used entry is evicted.
+ */
+public class LruCache<K, V> {
+
+    private final Map<K, V> entries;
+
+    /**
+     * @param maxSize max number of entries kept in the cache
+     */
+    public LruCache(final int maxSize) {
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns cached value or null if there is no value for given key
+     */
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+}
@@ -0,0 +1,82 @@
+package org.shipkit.internal.notes.util;
+
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+
+import java.io.IOException;
+import java.util.concurrent.*;
+
+/**
+ * Remembers GitHub responses for the duration of the build, so that one build never fetches the same resource twice,
+ * even if different tasks use different fetchers.
+ * Concurrent requests for the same url collapse into a single call to GitHub.
+ * <p>
+ * Only successful GET requests are remembered. Memoization is active only between {@link #begin()} and {@link #end()},
+ * outside of the build (or when the build did not begin the memo) requests go straight to the delegate.
+ */
+class MemoizingGitHubTransport implements GitHubTransport {
+
+    private static final Logger LOG = Logging.getLogger(MemoizingGitHubTransport.class);
+
+    private final GitHubTransport delegate;
+    private volatile ConcurrentMap<String, FutureTask<GitHubResponse>> responses;
+
+    MemoizingGitHubTransport(GitHubTransport delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Starts remembering responses, previously remembered responses are discarded
+     */
+    void begin() {
+        responses = new ConcurrentHashMap<String, FutureTask<GitHubResponse>>();
+    }
+
+    /**
+     * Stops remembering responses and discards remembered responses
+     */
+    void end() {
+        responses = null;
+    }
+
+    public GitHubResponse execute(final GitHubRequest request) throws IOException {
+        ConcurrentMap<String, FutureTask<GitHubResponse>> memo = responses;
+        if (memo == null || !"GET".equals(request.getMethod())) {
+            return delegate.execute(request);
+        }
+
+        String key = CachingGitHubTransport.stripToken(request.getUrl());
+        FutureTask<GitHubResponse> task = new FutureTask<GitHubResponse>(new Callable<GitHubResponse>() {
+            public GitHubResponse call() throws Exception {
+                return delegate.execute(request);
+            }
+        });
+        FutureTask<GitHubResponse> existing = memo.putIfAbsent(key, task);
+        if (existing == null) {
+            //we are the first one asking for this resource
+            task.run();
+        } else {
+            LOG.info("GitHub API response reused within the build: {}", key);
+            task = existing;
+        }
+
+        try {
+            GitHubResponse response = task.get();
+            if (!response.isSuccessful()) {
+                //only successful responses are worth remembering, failures need to be retried
+                memo.remove(key, task);
+            }
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for GitHub API response: " + key);
+        } catch (ExecutionException e) {
+            memo.remove(key, task);
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new RuntimeException("Problems executing GitHub API request: " + key, cause);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.shipkit.internal.notes.util;
+
+import java.io.IOException;
+
+/**
+ * Records every GitHub API request in {@link GitHubRequestMetrics}: endpoint, latency, bytes, status,
+ * whether it was served from cache and how much of the rate limit it consumed.
+ * <p>
+ * The metering transport is the outermost transport. To find out whether the request actually went over the network,
+ * the http transport is wrapped with {@link #network(GitHubTransport)}. All transports in between execute
+ * requests on the calling thread, so the network exchange is reported back via thread local.
+ */
+class MeteringGitHubTransport implements GitHubTransport {
+
+    private static final ThreadLocal<NetworkExchange> EXCHANGE = new ThreadLocal<NetworkExchange>();
+
+    private final GitHubTransport delegate;
+    private final GitHubRequestMetrics metrics;
+
+    MeteringGitHubTransport(GitHubTransport delegate, GitHubRequestMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Wraps the http transport so that network exchanges are visible to the metering transport
+     */
+    static GitHubTransport network(final GitHubTransport http) {
+        return new GitHubTransport() {
+            public GitHubResponse execute(GitHubRequest request) throws IOException {
+                NetworkExchange exchange = EXCHANGE.get();
+                if (exchange == null) {
+                    return http.execute(request);
+                }
+                exchange.calls++;
+                GitHubResponse response = http.execute(request);
+                exchange.lastStatus = response.getStatusCode();
+                exchange.rateLimitRemaining = response.getHeader("X-RateLimit-Remaining");
+                //conditional requests answered with '304 Not Modified' are free
+                if (response.getStatusCode() != 304) {
+                    exchange.rateLimitConsumed++;
+                }
+                return response;
+            }
+        };
+    }
+
+    public GitHubResponse execute(GitHubRequest request) throws IOException {
+        NetworkExchange exchange = new NetworkExchange();
+        NetworkExchange previous = EXCHANGE.get();
+        EXCHANGE.set(exchange);
+        long start = System.currentTimeMillis();
+        int status = 0;
+        long bytes = 0;
+        try {
+            GitHubResponse response = delegate.execute(request);
+            status = response.getStatusCode();
+            bytes = response.getRawBody().length;
+            return response;
+        } finally {
+            long latency = System.currentTimeMillis() - start;
+            EXCHANGE.set(previous);
+            metrics.record(new GitHubRequestMetrics.Request(request.getMethod(),
+                    GitHubRequestMetrics.endpointOf(request.getUrl()), latency, bytes, cacheResult(exchange), status,
+                    exchange.calls, parseInt(exchange.rateLimitRemaining), exchange.rateLimitConsumed));
+        }
+    }
+
+    private static String cacheResult(NetworkExchange exchange) {
+        if (exchange.calls == 0) {
+            return GitHubRequestMetrics.CACHE_HIT;
+        }
+        return exchange.lastStatus == 304 ? GitHubRequestMetrics.CACHE_REVALIDATED : GitHubRequestMetrics.CACHE_MISS;
+    }
+
+    private static Integer parseInt(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static class NetworkExchange {
+        int calls;
+        int lastStatus;
+        int rateLimitConsumed;
+        String rateLimitRemaining;
+    }
+}
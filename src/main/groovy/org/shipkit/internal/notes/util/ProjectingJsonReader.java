@@ -0,0 +1,258 @@
+package org.shipkit.internal.notes.util;
+
+import org.json.simple.JsonArray;
+import org.json.simple.JsonObject;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Streaming Json reader that keeps only the fields described by the {@link JsonProjection}.
+ * Values of other fields are skipped as they are read from the stream, without building objects or Strings.
+ * This way, memory and CPU needed for parsing is proportional to what we use, not to the size of the payload.
+ * <p>
+ * Produces the same types as json-simple's Jsoner: {@link JsonObject}, {@link JsonArray}, {@link BigDecimal},
+ * String, Boolean and null, so that the result can be consumed by existing code.
+ */
+public class ProjectingJsonReader {
+
+    private final Reader reader;
+    private final JsonProjection projection;
+    private int peeked = -2;
+    private long position;
+
+    public ProjectingJsonReader(InputStream input, JsonProjection projection) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(input, "UTF-8"));
+        this.projection = projection;
+    }
+
+    /**
+     * Reads Json array of objects, applying the projection to each element. Closes the stream.
+     */
+    @SuppressWarnings("unchecked")
+    public List<JsonObject> readArray() throws IOException {
+        try {
+            skipWhitespace();
+            if (peek() != '[') {
+                throw malformed("Json array expected");
+            }
+            JsonArray array = (JsonArray) readValue(projection);
+            skipWhitespace();
+            if (peek() != -1) {
+                throw malformed("Unexpected content after Json array");
+            }
+            return (List) array;
+        } finally {
+            IOUtil.close(reader);
+        }
+    }
+
+    /**
+     * Reads the value. If projection is null the value is skipped and null is returned.
+     */
+    private Object readValue(JsonProjection p) throws IOException {
+        skipWhitespace();
+        int c = peek();
+        switch (c) {
+            case '{':
+                return readObject(p);
+            case '[':
+                return readArray(p);
+            case '"':
+                return p == null ? skipString() : readString();
+            case 't':
+                expectLiteral("true");
+                return Boolean.TRUE;
+            case 'f':
+                expectLiteral("false");
+                return Boolean.FALSE;
+            case 'n':
+                expectLiteral("null");
+                return null;
+            default:
+                String number = readNumber();
+                return p == null ? null : new BigDecimal(number);
+        }
+    }
+
+    private JsonObject readObject(JsonProjection p) throws IOException {
+        read(); // '{'
+        JsonObject result = p == null ? null : new JsonObject();
+        skipWhitespace();
+        if (peek() == '}') {
+            read();
+            return result;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') {
+                throw malformed("Field name expected");
+            }
+            String name = readString();
+            skipWhitespace();
+            if (read() != ':') {
+                throw malformed("':' expected");
+            }
+            JsonProjection child = childProjection(p, name);
+            Object value = readValue(child);
+            if (child != null) {
+                result.put(name, value);
+            }
+            skipWhitespace();
+            int c = read();
+            if (c == '}') {
+                return result;
+            }
+            if (c != ',') {
+                throw malformed("',' or '}' expected");
+            }
+        }
+    }
+
+    private static JsonProjection childProjection(JsonProjection p, String name) {
+        if (p == null) {
+            return null;
+        }
+        //leaf means that we keep the entire value
+        return p.isLeaf() ? p : p.field(name);
+    }
+
+    private JsonArray readArray(JsonProjection p) throws IOException {
+        read(); // '['
+        JsonArray result = p == null ? null : new JsonArray();
+        skipWhitespace();
+        if (peek() == ']') {
+            read();
+            return result;
+        }
+        while (true) {
+            Object value = readValue(p);
+            if (result != null) {
+                result.add(value);
+            }
+            skipWhitespace();
+            int c = read();
+            if (c == ']') {
+                return result;
+            }
+            if (c != ',') {
+                throw malformed("',' or ']' expected");
+            }
+        }
+    }
+
+    private String readString() throws IOException {
+        read(); // opening quote
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c == '\\') {
+                sb.append(readEscaped());
+            } else if (c == -1) {
+                throw malformed("Unterminated string");
+            } else {
+                sb.append((char) c);
+            }
+        }
+    }
+
+    private Object skipString() throws IOException {
+        read(); // opening quote
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return null;
+            }
+            if (c == '\\') {
+                readEscaped();
+            } else if (c == -1) {
+                throw malformed("Unterminated string");
+            }
+        }
+    }
+
+    private char readEscaped() throws IOException {
+        int c = read();
+        switch (c) {
+            case '"': return '"';
+            case '\\': return '\\';
+            case '/': return '/';
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            case 'u':
+                char[] hex = new char[4];
+                for (int i = 0; i < 4; i++) {
+                    int h = read();
+                    if (h == -1) {
+                        throw malformed("Unterminated unicode escape");
+                    }
+                    hex[i] = (char) h;
+                }
+                try {
+                    return (char) Integer.parseInt(new String(hex), 16);
+                } catch (NumberFormatException e) {
+                    throw malformed("Invalid unicode escape");
+                }
+            default:
+                throw malformed("Invalid escape character");
+        }
+    }
+
+    private String readNumber() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int c = peek();
+        while (c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E' || (c >= '0' && c <= '9')) {
+            sb.append((char) read());
+            c = peek();
+        }
+        if (sb.length() == 0) {
+            throw malformed("Unexpected character '" + (char) c + "'");
+        }
+        return sb.toString();
+    }
+
+    private void expectLiteral(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (read() != literal.charAt(i)) {
+                throw malformed("'" + literal + "' expected");
+            }
+        }
+    }
+
+    private void skipWhitespace() throws IOException {
+        while (true) {
+            int c = peek();
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return;
+            }
+            read();
+        }
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = reader.read();
+        }
+        return peeked;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        peeked = -2;
+        if (c != -1) {
+            position++;
+        }
+        return c;
+    }
+
+    private IOException malformed(String problem) {
+        return new IOException("Malformed Json returned by GitHub API at position " + position + ": " + problem);
+    }
+}
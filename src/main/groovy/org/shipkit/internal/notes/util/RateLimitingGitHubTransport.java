@@ -0,0 +1,188 @@
+package org.shipkit.internal.notes.util;
+
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.shipkit.internal.notes.internal.DateFormat;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Governs the use of GitHub API rate limit, it is shared by all fetchers in the build.
+ * Tracks the remaining budget using 'X-RateLimit-*' response headers and:
+ * <ul>
+ *     <li>caps the number of concurrent requests, to avoid triggering GitHub's secondary (abuse) limits</li>
+ *     <li>paces requests when the remaining budget gets low, spreading it until the reset time</li>
+ *     <li>waits for the reset time when the budget is gone, instead of failing the build</li>
+ *     <li>waits and repeats the request when GitHub responds that a limit was exceeded</li>
+ * </ul>
+ * See https://developer.github.com/v3/#rate-limiting
+ */
+class RateLimitingGitHubTransport implements GitHubTransport {
+
+    private static final Logger LOG = Logging.getLogger(RateLimitingGitHubTransport.class);
+
+    /**
+     * Remaining requests that we never use, they are left for the user (e.g. for browsing GitHub)
+     */
+    static final int RESERVE = 5;
+
+    /**
+     * Below this number of remaining requests we start pacing the requests
+     */
+    static final int LOW_WATER_MARK = 100;
+
+    private static final int MAX_LIMIT_RETRIES = 2;
+    private static final long SECONDARY_LIMIT_WAIT_MILLIS = 60 * 1000;
+
+    private final GitHubTransport delegate;
+    private final Semaphore permits;
+
+    private final Object lock = new Object();
+    //-1 means that we don't know yet, we learn about the rate limit from the first response
+    private int remaining = -1;
+    private long resetAtMillis;
+    //all requests wait until this time, set when the budget is used up
+    private long blockedUntilMillis;
+    //time of the last reserved request slot while pacing
+    private long nextSlotMillis;
+
+    RateLimitingGitHubTransport(GitHubTransport delegate, int maxConcurrentRequests) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+    }
+
+    public GitHubResponse execute(GitHubRequest request) throws IOException {
+        for (int attempt = 0; ; attempt++) {
+            GitHubResponse response = executeWithPermit(request);
+            long waitMillis = limitExceededWait(response);
+            if (waitMillis < 0 || attempt >= MAX_LIMIT_RETRIES) {
+                return response;
+            }
+            LOG.lifecycle("  GitHub API rate limit exceeded, waiting {} seconds before repeating the request.",
+                    waitMillis / 1000);
+            sleep(waitMillis);
+        }
+    }
+
+    private GitHubResponse executeWithPermit(GitHubRequest request) throws IOException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for GitHub API request permit");
+        }
+        try {
+            sleep(reserveBudget());
+            GitHubResponse response = delegate.execute(request);
+            update(response);
+            return response;
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Reserves one request from the budget, returns how long we should wait before making the request.
+     * The waiting is coordinated between all concurrent callers:
+     * when the budget is used up everybody waits for the same reset time,
+     * and when the budget is low the requests get consecutive time slots so that the total rate,
+     * not the rate of each thread, is spread until the reset.
+     */
+    long reserveBudget() {
+        synchronized (lock) {
+            long now = currentTimeMillis();
+            if (blockedUntilMillis > now) {
+                return blockedUntilMillis - now;
+            }
+            if (remaining < 0) {
+                return 0;
+            }
+            long untilReset = Math.max(0, resetAtMillis - now);
+            if (untilReset == 0) {
+                //new window has already started, we don't know the budget until the next response
+                remaining = -1;
+                nextSlotMillis = 0;
+                return 0;
+            }
+            if (remaining <= RESERVE) {
+                LOG.lifecycle("  GitHub API rate limit is almost used up ({} remaining), waiting until it resets at {}.",
+                        remaining, DateFormat.formatDateToLocalTime(new Date(resetAtMillis)));
+                remaining = -1;
+                blockedUntilMillis = resetAtMillis + 1000;
+                return blockedUntilMillis - now;
+            }
+            remaining--;
+            if (remaining < LOW_WATER_MARK) {
+                //spread the remaining budget evenly until the reset
+                long interval = untilReset / (remaining - RESERVE + 1);
+                nextSlotMillis = Math.max(now, nextSlotMillis) + interval;
+                return nextSlotMillis - now;
+            }
+            return 0;
+        }
+    }
+
+    void update(GitHubResponse response) {
+        String r = response.getHeader("X-RateLimit-Remaining");
+        String reset = response.getHeader("X-RateLimit-Reset");
+        if (r == null || reset == null) {
+            return;
+        }
+        int newRemaining = Integer.parseInt(r.trim());
+        long newReset = Long.parseLong(reset.trim()) * 1000;
+        synchronized (lock) {
+            if (newReset != resetAtMillis || remaining < 0) {
+                resetAtMillis = newReset;
+                remaining = newRemaining;
+            } else {
+                //concurrent responses may come out of order, the lowest value is the most recent one
+                remaining = Math.min(remaining, newRemaining);
+            }
+        }
+    }
+
+    /**
+     * How long to wait before repeating request rejected because of rate limit, or -1 if the request was not rejected
+     */
+    long limitExceededWait(GitHubResponse response) {
+        int status = response.getStatusCode();
+        if (status != 403 && status != 429) {
+            return -1;
+        }
+        String retryAfter = response.getHeader("Retry-After");
+        if (retryAfter != null) {
+            return Long.parseLong(retryAfter.trim()) * 1000;
+        }
+        if ("0".equals(response.getHeader("X-RateLimit-Remaining"))) {
+            synchronized (lock) {
+                remaining = -1;
+                long now = currentTimeMillis();
+                blockedUntilMillis = Math.max(blockedUntilMillis, Math.max(now, resetAtMillis) + 1000);
+                return blockedUntilMillis - now;
+            }
+        }
+        if (status == 429) {
+            return SECONDARY_LIMIT_WAIT_MILLIS;
+        }
+        //regular 403, for example bad credentials
+        return -1;
+    }
+
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    void sleep(long millis) throws IOException {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for GitHub API rate limit");
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.shipkit.internal.notes.util;
+
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.Random;
+
+/**
+ * Retries idempotent (GET) requests that failed because of transient problems:
+ * connection problems and server side errors (5xx).
+ * Uses exponential backoff with full jitter so that concurrent fetchers don't retry in lock step.
+ * All requests go through a {@link CircuitBreaker} so that we fail fast when GitHub API is clearly down
+ * instead of retrying every single request.
+ * Interrupted requests are not retried and don't count as failures, the build is being cancelled.
+ */
+class RetryingGitHubTransport implements GitHubTransport {
+
+    private static final Logger LOG = Logging.getLogger(RetryingGitHubTransport.class);
+
+    private final GitHubTransport delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final Random random = new Random();
+
+    RetryingGitHubTransport(GitHubTransport delegate, CircuitBreaker circuitBreaker, int maxAttempts, long baseDelayMillis) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+    }
+
+    public GitHubResponse execute(GitHubRequest request) throws IOException {
+        boolean idempotent = "GET".equals(request.getMethod());
+        for (int attempt = 1; ; attempt++) {
+            if (!circuitBreaker.allowRequest()) {
+                throw new IOException("GitHub API appears to be down, too many consecutive failures." +
+                        " Not sending request: " + request);
+            }
+            try {
+                GitHubResponse response = delegate.execute(request);
+                if (!isTransientFailure(response)) {
+                    circuitBreaker.recordSuccess();
+                    return response;
+                }
+                circuitBreaker.recordFailure();
+                if (!idempotent || attempt >= maxAttempts) {
+                    return response;
+                }
+                LOG.lifecycle("  GitHub API responded with {}, retrying ({}/{}): {}",
+                        response.getStatusCode(), attempt, maxAttempts - 1, request);
+            } catch (IOException e) {
+                if (isInterrupted(e)) {
+                    circuitBreaker.recordCancelled();
+                    throw e;
+                }
+                circuitBreaker.recordFailure();
+                if (!idempotent || attempt >= maxAttempts) {
+                    throw e;
+                }
+                LOG.lifecycle("  Problems communicating with GitHub API ({}), retrying ({}/{})",
+                        e.getMessage(), attempt, maxAttempts - 1);
+            }
+            sleep(backoff(attempt));
+        }
+    }
+
+    static boolean isTransientFailure(GitHubResponse response) {
+        int status = response.getStatusCode();
+        return status == 500 || status == 502 || status == 503 || status == 504;
+    }
+
+    /**
+     * Whether the request failed because the thread was interrupted, not because of GitHub API problems.
+     * Socket timeouts are {@link InterruptedIOException} too but they are regular connection problems.
+     */
+    static boolean isInterrupted(IOException e) {
+        return Thread.currentThread().isInterrupted()
+                || (e instanceof InterruptedIOException && !(e instanceof SocketTimeoutException))
+                || e.getCause() instanceof InterruptedException;
+    }
+
+    /**
+     * Exponential backoff with full jitter: random value between 0 and base * 2^(attempt-1)
+     */
+    long backoff(int attempt) {
+        long cap = baseDelayMillis << Math.min(attempt - 1, 10);
+        return (long) (random.nextDouble() * cap);
+    }
+
+    void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting to retry GitHub API request");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.shipkit.internal.notes.vcs;
+
+import org.json.simple.JsonArray;
+import org.json.simple.JsonObject;
+import org.json.simple.Jsoner;
+import org.shipkit.internal.notes.model.Commit;
+import org.shipkit.internal.notes.util.IOUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * On-disk index of commits keyed by the commit id.
+ * Keeps author, email, message and the tickets parsed from the message.
+ * <p>
+ * Commits never change, so once a commit was read from 'git log' and its tickets were parsed
+ * the following release notes runs (previews, regenerating notes for many versions) can reuse it.
+ * <p>
+ * The index lives in the build directory, 'clean' removes it.
+ */
+class CommitIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CommitIndex.class);
+
+    /**
+     * Bump when the way commits are parsed changes (for example {@link TicketParser}), so that stale entries are dropped
+     */
+    private static final int VERSION = 1;
+
+    private final File file;
+    private final Map<String, Commit> commits = new HashMap<String, Commit>();
+    private boolean modified;
+
+    CommitIndex(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Loads the index from file. Missing or unreadable file results in an empty index.
+     */
+    static CommitIndex load(File file) {
+        CommitIndex index = new CommitIndex(file);
+        if (!file.isFile()) {
+            return index;
+        }
+        try {
+            JsonObject json = (JsonObject) Jsoner.deserialize(IOUtil.readFully(file));
+            BigDecimal version = (BigDecimal) json.get("version");
+            if (version == null || version.intValue() != VERSION) {
+                LOG.info("Ignoring commit index {} written by different version of the index format", file);
+                return index;
+            }
+            for (Object c : (JsonArray) json.get("commits")) {
+                JsonObject commit = (JsonObject) c;
+                Set<String> tickets = new LinkedHashSet<String>();
+                for (Object t : (JsonArray) commit.get("tickets")) {
+                    tickets.add((String) t);
+                }
+                index.commits.put(commit.getString("commitId"), new GitCommit(commit.getString("commitId"),
+                        commit.getString("email"), commit.getString("author"), commit.getString("message"), tickets));
+            }
+            LOG.info("Loaded {} commits from commit index {}", index.commits.size(), file);
+        } catch (Exception e) {
+            LOG.warn("Unable to read commit index {}, commits will be parsed again", file, e);
+            index.commits.clear();
+        }
+        return index;
+    }
+
+    /**
+     * Commit with given id or null if the commit is not in the index
+     */
+    synchronized Commit get(String commitId) {
+        return commits.get(commitId);
+    }
+
+    synchronized void put(Commit commit) {
+        commits.put(commit.getCommitId(), commit);
+        modified = true;
+    }
+
+    synchronized boolean isEmpty() {
+        return commits.isEmpty();
+    }
+
+    /**
+     * Writes the index to file if new commits were added, problems are only logged
+     */
+    synchronized void save() {
+        if (!modified) {
+            return;
+        }
+        JsonArray array = new JsonArray();
+        for (Commit commit : commits.values()) {
+            JsonObject c = new JsonObject();
+            c.put("commitId", commit.getCommitId());
+            c.put("email", commit.getAuthorEmail());
+            c.put("author", commit.getAuthorName());
+            c.put("message", commit.getMessage());
+            c.put("tickets", new JsonArray(commit.getTickets()));
+            array.add(c);
+        }
+        JsonObject json = new JsonObject();
+        json.put("version", VERSION);
+        json.put("commits", array);
+        try {
+            IOUtil.writeFileAtomically(file, Jsoner.serialize(json).getBytes("UTF-8"));
+            modified = false;
+        } catch (IOException e) {
+            LOG.warn("Unable to write commit index {}", file, e);
+        }
+    }
+}
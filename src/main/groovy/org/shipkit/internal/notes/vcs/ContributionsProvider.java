@@ -2,6 +2,8 @@ package org.shipkit.internal.notes.vcs;
 
 import org.shipkit.internal.notes.model.ContributionSet;
 
+import java.util.Collection;
+
 /**
  * Knows the contributions
  */
@@ -11,4 +13,10 @@ public interface ContributionsProvider {
      * Provides contributions between specified revisions
      */
     ContributionSet getContributionsBetween(String fromRev, String toRev);
+
+    /**
+     * Makes sure the tags are available locally, so that contributions between them can be provided.
+     * Missing tags are fetched from the remote all at once, instead of one by one for every range of revisions.
+     */
+    void fetchTags(Collection<String> tags);
 }
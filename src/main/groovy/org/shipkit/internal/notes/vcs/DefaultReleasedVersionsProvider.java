@@ -7,13 +7,13 @@ import java.util.*;
 
 class DefaultReleasedVersionsProvider implements ReleasedVersionsProvider {
 
-    private final RevisionDateProvider dateProvider;
+    private final RevisionDates dateProvider;
 
     DefaultReleasedVersionsProvider(ProcessRunner runner) {
         this(new RevisionDateProvider(runner));
     }
 
-    DefaultReleasedVersionsProvider(RevisionDateProvider dateProvider) {
+    DefaultReleasedVersionsProvider(RevisionDates dateProvider) {
         this.dateProvider = dateProvider;
     }
 
@@ -32,18 +32,31 @@ class DefaultReleasedVersionsProvider implements ReleasedVersionsProvider {
         List<String> theVersions = new ArrayList<String>(versions);
         LinkedList<ReleasedVersion> result = new LinkedList<ReleasedVersion>();
 
+        List<String> tags = new ArrayList<String>();
+        for (String v : theVersions) {
+            tags.add(tagPrefix + v);
+        }
+        //single git invocation for all tags, regardless of the number of versions
+        Map<String, Date> tagDates = dateProvider.getDates(tags);
+        List<Date> dates = new ArrayList<Date>();
+        for (String tag : tags) {
+            dates.add(tagDates.get(tag));
+        }
+
         for (int i = 0; i < theVersions.size(); i++) {
             String v = theVersions.get(i);
             String tag = tagPrefix + v;
             //the value of 'next' element in collection is the 'previous version' because the input versions are sorted descending
-            String previous = (theVersions.size() > (i+1))? tagPrefix + theVersions.get(i+1) : null;
-            Date date = dateProvider.getDate(tag);
-            result.add(new DefaultReleasedVersion(v, date, tag, previous));
+            boolean hasPrevious = theVersions.size() > (i+1);
+            String previous = hasPrevious? tagPrefix + theVersions.get(i+1) : null;
+            Date previousDate = hasPrevious? dates.get(i+1) : null;
+            result.add(new DefaultReleasedVersion(v, dates.get(i), tag, previous, previousDate));
         }
 
         if (headVersion != null) {
             String prev = result.isEmpty() ? null : result.get(0).getRev();
-            DefaultReleasedVersion head = new DefaultReleasedVersion(headVersion, headDate, "HEAD", prev);
+            Date prevDate = result.isEmpty() ? null : result.get(0).getDate();
+            DefaultReleasedVersion head = new DefaultReleasedVersion(headVersion, headDate, "HEAD", prev, prevDate);
             result.addFirst(head);
         }
         return result;
@@ -54,12 +67,14 @@ class DefaultReleasedVersionsProvider implements ReleasedVersionsProvider {
         private final Date date;
         private final String rev;
         private final String previousRev;
+        private final Date previousDate;
 
-        DefaultReleasedVersion(String version, Date date, String rev, String previousRev) {
+        DefaultReleasedVersion(String version, Date date, String rev, String previousRev, Date previousDate) {
             this.version = version;
             this.date = date;
             this.rev = rev;
             this.previousRev = previousRev;
+            this.previousDate = previousDate;
         }
 
         public String getVersion() {
@@ -78,6 +93,10 @@ class DefaultReleasedVersionsProvider implements ReleasedVersionsProvider {
             return previousRev;
         }
 
+        public Date getPreviousDate() {
+            return previousDate;
+        }
+
         public String toString() {
             return "" + version + "@" + (date != null? DateFormat.formatDate(date): "<no date>") + "(" + rev + ".." + previousRev + ")";
         }
@@ -20,11 +20,18 @@ class GitCommit implements Commit {
     private final Set<String> tickets;
 
     GitCommit(String commitId, String email, String author, String message) {
+        this(commitId, email, author, message, TicketParser.parseTickets(message));
+    }
+
+    /**
+     * Commit with tickets that were already parsed from the message, see {@link CommitIndex}
+     */
+    GitCommit(String commitId, String email, String author, String message, Set<String> tickets) {
         this.commitId = commitId;
         this.email = email;
         this.author = author;
         this.message = message;
-        this.tickets = TicketParser.parseTickets(message);
+        this.tickets = tickets;
     }
 
     @Override
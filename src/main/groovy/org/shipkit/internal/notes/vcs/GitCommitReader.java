@@ -0,0 +1,61 @@
+package org.shipkit.internal.notes.vcs;
+
+import org.shipkit.internal.notes.model.Commit;
+
+import java.io.*;
+
+/**
+ * Reads commits from 'git log -z' output one by one, without buffering the entire log in memory.
+ * Expects {@link #LOG_FORMAT}: fields of the commit and the commits themselves are separated with NUL character.
+ * Memory used by the reader is bounded by the size of the largest commit.
+ */
+class GitCommitReader implements Closeable {
+
+    /**
+     * Format for 'git log -z': commit id, author email, author name, raw body (with notes)
+     */
+    static final String LOG_FORMAT = "--pretty=format:%H%x00%ae%x00%an%x00%B%N";
+
+    private static final int FIELD_SEPARATOR = 0;
+
+    private final Reader reader;
+    private final StringBuilder field = new StringBuilder();
+
+    GitCommitReader(InputStream input) throws UnsupportedEncodingException {
+        this.reader = new BufferedReader(new InputStreamReader(input, "UTF-8"));
+    }
+
+    /**
+     * Reads next commit, returns null when there are no more commits
+     */
+    Commit next() throws IOException {
+        String commitId = readField();
+        String email = readField();
+        String author = readField();
+        String message = readField();
+        if (message == null) {
+            //end of the log (or truncated commit)
+            return null;
+        }
+        return new GitCommit(commitId.trim(), email.trim(), author.trim(), message.trim());
+    }
+
+    /**
+     * Returns the field up to the next separator, or null if the end of the stream was reached before any character was read
+     */
+    private String readField() throws IOException {
+        field.setLength(0);
+        int c;
+        while ((c = reader.read()) != -1 && c != FIELD_SEPARATOR) {
+            field.append((char) c);
+        }
+        if (c == -1 && field.length() == 0) {
+            return null;
+        }
+        return field.toString();
+    }
+
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -1,23 +1,55 @@
 package org.shipkit.internal.notes.vcs;
 
+import org.shipkit.internal.exec.ProcessOutputHandler;
 import org.shipkit.internal.notes.model.Commit;
 import org.shipkit.internal.notes.model.ContributionSet;
+import org.shipkit.internal.notes.util.IOUtil;
+import org.shipkit.internal.notes.util.LruCache;
 import org.shipkit.internal.notes.util.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Collection;
-import java.util.LinkedList;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
 
 class GitContributionsProvider implements ContributionsProvider {
 
     private static final Logger LOG = LoggerFactory.getLogger(GitContributionsProvider.class);
+
+    /**
+     * Commits keyed by the range of commit ids, lives as long as the Gradle daemon.
+     * Repeated builds (for example release notes previews) don't need to spawn 'git log' again.
+     * The key contains commit ids, not branch or tag names, so when HEAD or tags move the stale entries
+     * are simply not used any more and eventually get evicted.
+     */
+    private static final LruCache<String, Collection<Commit>> COMMITS = new LruCache<String, Collection<Commit>>(64);
+
     private final GitLogProvider logProvider;
     private final Predicate<Commit> ignoredCommit;
+    private final CommitIndex index;
+    private final LruCache<String, Collection<Commit>> commitsCache;
 
     GitContributionsProvider(GitLogProvider logProvider, Predicate<Commit> ignoredCommit) {
+        this(logProvider, ignoredCommit, null);
+    }
+
+    /**
+     * @param index on-disk index of commits parsed by previous runs, can be null
+     */
+    GitContributionsProvider(GitLogProvider logProvider, Predicate<Commit> ignoredCommit, CommitIndex index) {
+        this(logProvider, ignoredCommit, index, COMMITS);
+    }
+
+    /**
+     * @param commitsCache commits keyed by the range of commit ids, by default shared by all providers in the Gradle daemon
+     */
+    GitContributionsProvider(GitLogProvider logProvider, Predicate<Commit> ignoredCommit, CommitIndex index,
+                             LruCache<String, Collection<Commit>> commitsCache) {
         this.logProvider = logProvider;
         this.ignoredCommit = ignoredCommit;
+        this.index = index;
+        this.commitsCache = commitsCache;
     }
 
     public ContributionSet getContributionsBetween(String fromRev, String toRev) {
@@ -34,30 +66,110 @@ class GitContributionsProvider implements ContributionsProvider {
         return contributions;
     }
 
+    public void fetchTags(Collection<String> tags) {
+        logProvider.fetchTags(tags);
+    }
+
     private Collection<Commit> getCommits(String fromRev, String toRev) {
+        String range = logProvider.resolveRange(fromRev, toRev);
+        Collection<Commit> commits = range == null ? null : commitsCache.get(range);
+        if (commits != null) {
+            LOG.info("Reusing {} commits between {} and {} ({}) loaded by previous build", commits.size(), fromRev, toRev, range);
+            return commits;
+        }
+        commits = loadCommits(fromRev, toRev);
+        if (range != null) {
+            commitsCache.put(range, Collections.unmodifiableCollection(commits));
+        }
+        return commits;
+    }
+
+    private Collection<Commit> loadCommits(String fromRev, String toRev) {
+        if (index != null && !index.isEmpty()) {
+            return loadIndexedCommits(fromRev, toRev);
+        }
+
         LOG.info("Loading all commits between {} and {}", fromRev, toRev);
 
-        LinkedList<Commit> commits = new LinkedList<Commit>();
-        String commitToken = "@@commit@@";
-        String infoToken = "@@info@@";
-        // %H: commit hash
-        // %ae: author email
-        // %an: author name
-        // %B: raw body (unwrapped subject and body)
-        // %N: commit notes
-        String log = logProvider.getLog(fromRev, toRev, "--pretty=format:%H" + infoToken + "%ae" + infoToken + "%an" + infoToken + "%B%N" + commitToken);
-
-        for (String entry : log.split(commitToken)) {
-            String[] entryParts = entry.split(infoToken);
-            if (entryParts.length == 4) {
-                String commitId = entryParts[0].trim();
-                String email = entryParts[1].trim();
-                String author = entryParts[2].trim();
-                String message = entryParts[3].trim();
-                LOG.info("Loaded commit - email: {}, author: {}, message (trimmed): {}", email, author, message.replaceAll("\n.*", ""));
-                commits.add(new GitCommit(commitId, email, author, message));
+        final LinkedList<Commit> commits = new LinkedList<Commit>();
+        logProvider.streamLog(fromRev, toRev, GitCommitReader.LOG_FORMAT, new CommitsHandler(commits));
+
+        if (index != null) {
+            for (Commit commit : commits) {
+                index.put(commit);
+            }
+            index.save();
+        }
+        return commits;
+    }
+
+    /**
+     * Lists only the commit ids (cheap 'git log' that does not read commit messages) and looks them up in the index.
+     * Only the commits that are not indexed yet are read from git and parsed.
+     */
+    private Collection<Commit> loadIndexedCommits(String fromRev, String toRev) {
+        final List<String> ids = new ArrayList<String>();
+        logProvider.streamLog(fromRev, toRev, "--pretty=format:%H", new ProcessOutputHandler() {
+            public void handleOutput(InputStream output) throws IOException {
+                for (String id : IOUtil.readFully(output).split("\u0000")) {
+                    if (!id.trim().isEmpty()) {
+                        ids.add(id.trim());
+                    }
+                }
+            }
+        });
+
+        List<String> missing = new ArrayList<String>();
+        for (String id : ids) {
+            if (index.get(id) == null) {
+                missing.add(id);
+            }
+        }
+        LOG.info("Found {} of {} commits between {} and {} in the commit index, loading remaining {} commits",
+                ids.size() - missing.size(), ids.size(), fromRev, toRev, missing.size());
+
+        if (!missing.isEmpty()) {
+            List<Commit> loaded = new LinkedList<Commit>();
+            logProvider.streamCommits(missing, GitCommitReader.LOG_FORMAT, new CommitsHandler(loaded));
+            for (Commit commit : loaded) {
+                index.put(commit);
+            }
+            index.save();
+        }
+
+        //the order of 'git log'
+        List<Commit> commits = new LinkedList<Commit>();
+        for (String id : ids) {
+            Commit commit = index.get(id);
+            if (commit != null) {
+                commits.add(commit);
             }
         }
         return commits;
     }
+
+    private static class CommitsHandler implements ProcessOutputHandler {
+        private final Collection<Commit> commits;
+
+        CommitsHandler(Collection<Commit> commits) {
+            this.commits = commits;
+        }
+
+        public void handleOutput(InputStream output) throws IOException {
+            GitCommitReader reader = new GitCommitReader(output);
+            Commit commit;
+            while ((commit = reader.next()) != null) {
+                if (LOG.isInfoEnabled()) {
+                    LOG.info("Loaded commit - email: {}, author: {}, message (trimmed): {}",
+                            commit.getAuthorEmail(), commit.getAuthorName(), firstLine(commit.getMessage()));
+                }
+                commits.add(commit);
+            }
+        }
+    }
+
+    private static String firstLine(String message) {
+        int eol = message.indexOf('\n');
+        return eol == -1 ? message : message.substring(0, eol);
+    }
 }
@@ -1,20 +1,105 @@
 package org.shipkit.internal.notes.vcs;
 
+import org.shipkit.internal.exec.ProcessOutputHandler;
 import org.shipkit.internal.exec.ProcessRunner;
 
+import java.util.*;
+
 class GitLogProvider {
 
+    private static final String TAGS_REF = "refs/tags/";
+    private static final int MAX_COMMITS_PER_LOG = 500;
+
     private final ProcessRunner runner;
+    //tags that are known to be available locally, no need to fetch them again
+    private final Set<String> localTags = new HashSet<String>();
 
     GitLogProvider(ProcessRunner runner) {
         this.runner = runner;
     }
 
-    public String getLog(String fromRev, String toRev, String format) {
-        String fetch = fromRev == null ? toRev : "+refs/tags/" + fromRev + ":refs/tags/" + fromRev;
-        String log = fromRev == null ? toRev : fromRev + ".." + toRev;
+    /**
+     * Streams NUL delimited log ('git log -z') to the handler, the log is never buffered in memory
+     */
+    public void streamLog(String fromRev, String toRev, String format, ProcessOutputHandler handler) {
+        String log = fetch(fromRev, toRev);
+        runner.run(handler, Arrays.asList("git", "log", "-z", format, log));
+    }
+
+    /**
+     * Streams NUL delimited log of given commits only ('git log --no-walk -z'), nothing is fetched from the remote.
+     * Commits are read in batches to keep the command line short.
+     */
+    public void streamCommits(List<String> commitIds, String format, ProcessOutputHandler handler) {
+        for (int i = 0; i < commitIds.size(); i += MAX_COMMITS_PER_LOG) {
+            List<String> log = new ArrayList<String>(Arrays.asList("git", "log", "--no-walk", "-z", format));
+            log.addAll(commitIds.subList(i, Math.min(i + MAX_COMMITS_PER_LOG, commitIds.size())));
+            runner.run(handler, log);
+        }
+    }
+
+    /**
+     * Fetches the revision from the remote if needed and returns the range of revisions for 'git log'
+     */
+    private String fetch(String fromRev, String toRev) {
+        if (fromRev == null) {
+            runner.run("git", "fetch", "origin", toRev);
+            return toRev;
+        }
+        fetchTags(Collections.singleton(fromRev));
+        return fromRev + ".." + toRev;
+    }
+
+    /**
+     * Makes sure the tags are available locally.
+     * Tags that are missing locally are fetched from 'origin' with a single 'git fetch',
+     * nothing is fetched if all tags are already present.
+     */
+    public void fetchTags(Collection<String> tags) {
+        Set<String> missing = new LinkedHashSet<String>(tags);
+        missing.remove(null);
+        missing.removeAll(localTags);
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        missing.removeAll(listLocalTags());
+        if (!missing.isEmpty()) {
+            List<String> fetch = new ArrayList<String>(Arrays.asList("git", "fetch", "origin"));
+            for (String tag : missing) {
+                fetch.add("+" + TAGS_REF + tag + ":" + TAGS_REF + tag);
+            }
+            runner.run(fetch);
+            localTags.addAll(missing);
+        }
+    }
+
+    private Set<String> listLocalTags() {
+        Set<String> tags = new HashSet<String>();
+        for (String ref : runner.run("git", "for-each-ref", "--format=%(refname)", "refs/tags").split("\n")) {
+            if (ref.trim().startsWith(TAGS_REF)) {
+                tags.add(ref.trim().substring(TAGS_REF.length()));
+            }
+        }
+        localTags.addAll(tags);
+        return tags;
+    }
 
-        runner.run("git", "fetch", "origin", fetch);
-        return runner.run("git", "log", format, log);
+    /**
+     * Resolves revisions to commit ids, without fetching anything from the remote.
+     * Returns the range of commit ids, for example "a1b2..c3d4", or null if the revisions are not available locally.
+     * Commit id range identifies the same commits in every clone, regardless of how branches and tags move.
+     */
+    public String resolveRange(String fromRev, String toRev) {
+        try {
+            if (fromRev == null) {
+                return runner.run("git", "rev-parse", toRev + "^{commit}").trim();
+            }
+            String[] ids = runner.run("git", "rev-parse", fromRev + "^{commit}", toRev + "^{commit}").trim().split("\\s+");
+            return ids.length == 2 ? ids[0] + ".." + ids[1] : null;
+        } catch (RuntimeException e) {
+            //typically the tag was not fetched yet
+            return null;
+        }
     }
 }
@@ -0,0 +1,130 @@
+package org.shipkit.internal.notes.vcs;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.notes.Note;
+import org.eclipse.jgit.notes.NoteMap;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevSort;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.RefSpec;
+import org.shipkit.internal.notes.model.Commit;
+import org.shipkit.internal.notes.model.ContributionSet;
+import org.shipkit.internal.notes.util.Predicate;
+import org.shipkit.internal.notes.util.ReleaseNotesException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads contributions in-process with JGit, equivalent of {@link GitContributionsProvider} that does not fork 'git'
+ */
+class JGitContributionsProvider implements ContributionsProvider {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JGitContributionsProvider.class);
+
+    private final File workDir;
+    private final Predicate<Commit> ignoredCommit;
+
+    JGitContributionsProvider(File workDir, Predicate<Commit> ignoredCommit) {
+        this.workDir = workDir;
+        this.ignoredCommit = ignoredCommit;
+    }
+
+    public ContributionSet getContributionsBetween(String fromRev, String toRev) {
+        LOG.info("Loading all commits between {} and {} with JGit", fromRev, toRev);
+        Repository repository = JGitRepositories.open(workDir);
+        try {
+            if (fromRev != null) {
+                fetchMissingTags(repository, Collections.singleton(fromRev));
+            }
+
+            RevWalk walk = new RevWalk(repository);
+            //the same order as 'git log'
+            walk.sort(RevSort.COMMIT_TIME_DESC);
+            walk.markStart(JGitRepositories.parseCommit(repository, walk, toRev));
+            if (fromRev != null) {
+                walk.markUninteresting(JGitRepositories.parseCommit(repository, walk, fromRev));
+            }
+
+            NoteMap notes = readNotes(repository);
+            DefaultContributionSet contributions = new DefaultContributionSet();
+            for (RevCommit c : walk) {
+                PersonIdent author = c.getAuthorIdent();
+                //the same as '%B%N' in 'git log' format: raw body followed by the notes
+                String body = c.getFullMessage().endsWith("\n") ? c.getFullMessage() : c.getFullMessage() + "\n";
+                String message = body + getNote(notes, c, walk.getObjectReader());
+                Commit commit = new GitCommit(c.getName(), author.getEmailAddress(), author.getName(), message.trim());
+                LOG.info("Loaded commit - email: {}, author: {}, message (trimmed): {}",
+                        commit.getAuthorEmail(), commit.getAuthorName(), c.getShortMessage());
+                if (!ignoredCommit.isTrue(commit)) {
+                    contributions.add(commit);
+                }
+            }
+            return contributions;
+        } catch (IOException e) {
+            throw new ReleaseNotesException("Problems reading commits between " + fromRev + " and " + toRev, e);
+        } finally {
+            repository.close();
+        }
+    }
+
+    public void fetchTags(Collection<String> tags) {
+        Repository repository = JGitRepositories.open(workDir);
+        try {
+            fetchMissingTags(repository, tags);
+        } catch (IOException e) {
+            throw new ReleaseNotesException("Problems fetching tags " + tags + " from origin", e);
+        } finally {
+            repository.close();
+        }
+    }
+
+    /**
+     * Fetches tags that are not available locally with a single fetch, nothing is fetched if all tags are present
+     */
+    private static void fetchMissingTags(Repository repository, Collection<String> tags) throws IOException {
+        List<RefSpec> missing = new ArrayList<RefSpec>();
+        for (String tag : tags) {
+            if (tag != null && JGitRepositories.resolveCommit(repository, tag) == null) {
+                missing.add(new RefSpec("+refs/tags/" + tag + ":refs/tags/" + tag));
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        LOG.info("Tags are not available locally, fetching them from origin: {}", missing);
+        try {
+            Git.wrap(repository).fetch().setRemote("origin").setRefSpecs(missing).call();
+        } catch (GitAPIException e) {
+            throw new ReleaseNotesException("Problems fetching tags " + tags + " from origin", e);
+        }
+    }
+
+    private static NoteMap readNotes(Repository repository) throws IOException {
+        ObjectId notesCommit = repository.resolve("refs/notes/commits");
+        if (notesCommit == null) {
+            return null;
+        }
+        RevWalk walk = new RevWalk(repository);
+        return NoteMap.read(walk.getObjectReader(), walk.parseCommit(notesCommit));
+    }
+
+    private static String getNote(NoteMap notes, RevCommit commit, ObjectReader reader) throws IOException {
+        Note note = notes == null ? null : notes.getNote(commit);
+        if (note == null) {
+            return "";
+        }
+        return new String(reader.open(note.getData()).getBytes(), "UTF-8");
+    }
+}
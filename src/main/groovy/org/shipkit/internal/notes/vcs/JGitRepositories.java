@@ -0,0 +1,46 @@
+package org.shipkit.internal.notes.vcs;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.shipkit.internal.notes.util.ReleaseNotesException;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Opens git repositories in-process with JGit, so that no 'git' process needs to be forked
+ */
+class JGitRepositories {
+
+    /**
+     * Opens the repository that contains given work dir, the caller needs to close the repository
+     */
+    static Repository open(File workDir) {
+        try {
+            return new FileRepositoryBuilder().findGitDir(workDir).setMustExist(true).build();
+        } catch (Exception e) {
+            throw new ReleaseNotesException("Unable to open git repository in: " + workDir, e);
+        }
+    }
+
+    /**
+     * Resolves revision (tag, branch, commit id) to commit id, returns null if the revision is not available locally
+     */
+    static ObjectId resolveCommit(Repository repository, String rev) throws IOException {
+        return repository.resolve(rev + "^{commit}");
+    }
+
+    /**
+     * Parses commit of given revision (tag, branch, commit id)
+     */
+    static RevCommit parseCommit(Repository repository, RevWalk walk, String rev) throws IOException {
+        ObjectId id = resolveCommit(repository, rev);
+        if (id == null) {
+            throw new IllegalArgumentException("Can't find revision " + rev + ". Are you sure this revision or tag exists?");
+        }
+        return walk.parseCommit(id);
+    }
+}
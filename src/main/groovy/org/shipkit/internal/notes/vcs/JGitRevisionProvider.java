@@ -0,0 +1,55 @@
+package org.shipkit.internal.notes.vcs;
+
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.shipkit.internal.notes.util.ReleaseNotesException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resolves revisions and their dates in-process with JGit,
+ * equivalent of {@link GitRevisionProvider} and {@link RevisionDateProvider} that does not fork 'git'
+ */
+class JGitRevisionProvider implements RevisionProvider, RevisionDates {
+
+    private final File workDir;
+
+    JGitRevisionProvider(File workDir) {
+        this.workDir = workDir;
+    }
+
+    public String getRevisionForTagOrRevision(String tagOrRevision) {
+        Repository repository = JGitRepositories.open(workDir);
+        try {
+            return JGitRepositories.parseCommit(repository, new RevWalk(repository), tagOrRevision).getName();
+        } catch (IOException e) {
+            throw new ReleaseNotesException("Problems resolving revision " + tagOrRevision, e);
+        } finally {
+            repository.close();
+        }
+    }
+
+    /**
+     * Author dates of the commits of given revisions, the same date as '%ad' in 'git log' format
+     */
+    public Map<String, Date> getDates(Collection<String> revs) {
+        Repository repository = JGitRepositories.open(workDir);
+        try {
+            RevWalk walk = new RevWalk(repository);
+            Map<String, Date> result = new LinkedHashMap<String, Date>();
+            for (String rev : revs) {
+                result.put(rev, JGitRepositories.parseCommit(repository, walk, rev).getAuthorIdent().getWhen());
+            }
+            return result;
+        } catch (IOException e) {
+            throw new ReleaseNotesException("Problems reading dates of revisions " + revs, e);
+        } finally {
+            repository.close();
+        }
+    }
+}
@@ -26,4 +26,9 @@ public interface ReleasedVersion {
      * Nullable, previous revision (tag)
      */
     String getPreviousRev();
+
+    /**
+     * Nullable, release date of the previous revision (tag)
+     */
+    Date getPreviousDate();
 }
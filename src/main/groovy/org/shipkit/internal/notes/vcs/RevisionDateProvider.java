@@ -2,7 +2,10 @@ package org.shipkit.internal.notes.vcs;
 
 import org.shipkit.internal.exec.ProcessRunner;
 
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 import static org.shipkit.internal.notes.internal.DateFormat.parseDate;
@@ -10,7 +13,7 @@ import static org.shipkit.internal.notes.internal.DateFormat.parseDate;
 /**
  * Provides date of given vcs revision
  */
-class RevisionDateProvider {
+class RevisionDateProvider implements RevisionDates {
 
     private final ProcessRunner runner;
     /**
@@ -33,6 +36,36 @@ class RevisionDateProvider {
         return parseDate(gitOutput.trim());
     }
 
+    /**
+     * Provides dates of given revisions, in the same order.
+     * Dates of all tags are read with a single 'git for-each-ref' invocation,
+     * only the revisions that are not tags (for example commit ids) need extra 'git log' invocation.
+     */
+    public Map<String, Date> getDates(Collection<String> revs) {
+        Map<String, Date> tagDates = new LinkedHashMap<String, Date>();
+        if (!revs.isEmpty()) {
+            // %(authordate) is set for lightweight tags, %(*authordate) is the date of the commit annotated tag points to
+            String gitOutput = runner.run("git", "for-each-ref", "--format=%(refname)\t%(authordate:iso)\t%(*authordate:iso)", "refs/tags");
+            for (String line : gitOutput.split("\n")) {
+                String[] parts = line.split("\t");
+                if (parts.length < 2) {
+                    continue;
+                }
+                String date = parts.length > 2 && parts[2].trim().length() > 0 ? parts[2] : parts[1];
+                if (REVISION_DATE_PATTERN.matcher(date).matches()) {
+                    tagDates.put(parts[0].trim().replaceFirst("^refs/tags/", ""), parseDate(date.trim()));
+                }
+            }
+        }
+
+        Map<String, Date> result = new LinkedHashMap<String, Date>();
+        for (String rev : revs) {
+            Date date = tagDates.get(rev);
+            result.put(rev, date != null ? date : getDate(rev));
+        }
+        return result;
+    }
+
     private String formatErrorMessage(String rev, String gitOutput) {
         return "Can't get a proper date for revision number " + rev +
                 ". Are you sure this revision or tag exists?" +
@@ -0,0 +1,16 @@
+package org.shipkit.internal.notes.vcs;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Provides dates of vcs revisions, for example release tags
+ */
+interface RevisionDates {
+
+    /**
+     * Provides dates of given revisions, keyed by revision in the same order
+     */
+    Map<String, Date> getDates(Collection<String> revs);
+}
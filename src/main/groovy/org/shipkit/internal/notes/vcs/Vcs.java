@@ -4,6 +4,8 @@ import org.shipkit.internal.exec.ProcessRunner;
 import org.shipkit.internal.notes.model.Commit;
 import org.shipkit.internal.notes.util.Predicate;
 
+import java.io.File;
+
 /**
  * Vcs services
  */
@@ -16,6 +18,15 @@ public class Vcs {
         return new GitContributionsProvider(new GitLogProvider(runner), ignoredCommit);
     }
 
+    /**
+     * Provides means to get contributions, commits that were already parsed by previous runs are read from the index file
+     *
+     * @param commitIndexFile on-disk index of commits, typically in the build directory
+     */
+    public static ContributionsProvider getContributionsProvider(ProcessRunner runner, Predicate<Commit> ignoredCommit, File commitIndexFile) {
+        return new GitContributionsProvider(new GitLogProvider(runner), ignoredCommit, CommitIndex.load(commitIndexFile));
+    }
+
     /**
      * Provides means to get release versions
      */
@@ -26,4 +37,18 @@ public class Vcs {
     public static RevisionProvider getRevisionProvider(ProcessRunner runner) {
         return new GitRevisionProvider(runner);
     }
+
+    /**
+     * Provides means to get contributions, reading the repository in-process with JGit instead of forking 'git'
+     */
+    public static ContributionsProvider getJGitContributionsProvider(File workDir, Predicate<Commit> ignoredCommit) {
+        return new JGitContributionsProvider(workDir, ignoredCommit);
+    }
+
+    /**
+     * Provides means to get release versions, reading the repository in-process with JGit instead of forking 'git'
+     */
+    public static ReleasedVersionsProvider getJGitReleaseDateProvider(File workDir) {
+        return new DefaultReleasedVersionsProvider(new JGitRevisionProvider(workDir));
+    }
 }
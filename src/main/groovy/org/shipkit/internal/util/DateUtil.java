@@ -31,7 +31,7 @@ public class DateUtil {
      * See {@link #forGitHub(Date)}
      */
     public static String forGitHub(Date date, TimeZone tz) {
-        SimpleDateFormat format = new SimpleDateFormat("YYYY-MM-dd'T'HH:mm:ssZ");
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ");
         format.setTimeZone(tz);
         return format.format(date);
     }
@@ -62,4 +62,33 @@ class DefaultProcessRunnerTest extends Specification {
         thrown(GradleException)
         log.lifecycle("ls [SECRET] xx [SECRET] yy")
     }
+
+    def "streams output"() {
+        File dir = tmp.newFolder()
+        new File(dir, "xyz.txt").createNewFile()
+        def output = null
+
+        when:
+        new DefaultProcessRunner(dir).run(new ProcessOutputHandler() {
+            void handleOutput(InputStream stream) throws IOException {
+                output = stream.text
+            }
+        }, ["ls"])
+
+        then:
+        output.contains("xyz.txt")
+    }
+
+    def "reports error output when streaming command fails"() {
+        File dir = tmp.newFolder()
+
+        when:
+        new DefaultProcessRunner(dir).setSecretValue("foobar").run(Mock(ProcessOutputHandler), ["ls", "foobar"])
+
+        then:
+        def ex = thrown(GradleException)
+        ex.message.contains("Execution of command failed")
+        ex.message.contains("[SECRET]")
+        !ex.message.contains("foobar")
+    }
 }
@@ -0,0 +1,33 @@
+package org.shipkit.internal.gradle
+
+import org.gradle.testfixtures.ProjectBuilder
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+class AllContributorsFetcherTaskTest extends Specification {
+
+    @Rule
+    TemporaryFolder tmp = new TemporaryFolder()
+
+    def project = new ProjectBuilder().build()
+    def task = project.tasks.create("fetcher", AllContributorsFetcherTask)
+
+    def "output is fresh until max age"() {
+        def output = tmp.newFile()
+        output.lastModified = 1000 * 60 * 60 * 10
+        task.outputFile = output
+        task.maxAgeHours = 2
+
+        expect:
+        task.isOutputFresh(1000 * 60 * 60 * 11)
+        !task.isOutputFresh(1000 * 60 * 60 * 12)
+    }
+
+    def "missing output is not fresh"() {
+        task.outputFile = new File(tmp.root, "missing.json")
+
+        expect:
+        !task.isOutputFresh(System.currentTimeMillis())
+    }
+}
@@ -1,5 +1,6 @@
 package org.shipkit.internal.gradle
 
+import spock.lang.Unroll
 import testutil.PluginSpecification
 
 class ContributorsPluginTest extends PluginSpecification {
@@ -8,4 +9,33 @@ class ContributorsPluginTest extends PluginSpecification {
         expect:
         project.plugins.apply("org.shipkit.contributors")
     }
+
+    def "no full sync by default"() {
+        when:
+        project.plugins.apply(ContributorsPlugin)
+
+        then:
+        !fetchAllTask().fullSync
+    }
+
+    @Unroll
+    def "configures full sync to #setting when project property is #property"() {
+        when:
+        project.ext.'shipkit.contributors.fullSync' = property
+        project.plugins.apply(ContributorsPlugin)
+
+        then:
+        fetchAllTask().fullSync == setting
+
+        where:
+        property | setting
+        "false"  | false
+        "true"   | true
+        ""       | true
+        null     | true
+    }
+
+    private AllContributorsFetcherTask fetchAllTask() {
+        project.tasks.getByName(ContributorsPlugin.FETCH_ALL_CONTRIBUTORS_TASK) as AllContributorsFetcherTask
+    }
 }
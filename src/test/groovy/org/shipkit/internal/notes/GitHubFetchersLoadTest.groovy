@@ -0,0 +1,99 @@
+package org.shipkit.internal.notes
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import org.shipkit.internal.notes.contributors.AllContributorsFetcher
+import org.shipkit.internal.notes.contributors.ContributorNameCache
+import org.shipkit.internal.notes.contributors.RecentContributorsFetcher
+import org.shipkit.internal.notes.improvements.GitHubTicketFetcher
+import org.shipkit.internal.notes.util.GitHubRequestMetrics
+import org.shipkit.internal.notes.util.GitHubTransports
+import spock.lang.Shared
+import spock.lang.Specification
+import testutil.FakeGitHubServer
+import testutil.SyntheticGitHubData
+
+/**
+ * Drives GitHub fetchers against {@link FakeGitHubServer} and reports number of calls, bytes and time.
+ * By default runs with small data set so that it is a quick smoke test.
+ * To run at scale, pass system properties, for example:
+ * <pre>
+ * ./gradlew test --tests *GitHubFetchersLoadTest -Dshipkit.loadTest.issues=50000 -Dshipkit.loadTest.contributors=2000 \
+ *     -Dshipkit.loadTest.commits=20000 -Dshipkit.loadTest.latencyMillis=50
+ * </pre>
+ */
+class GitHubFetchersLoadTest extends Specification {
+
+    @Shared int issues = Integer.getInteger("shipkit.loadTest.issues", 500)
+    @Shared int contributors = Integer.getInteger("shipkit.loadTest.contributors", 50)
+    @Shared int commits = Integer.getInteger("shipkit.loadTest.commits", 500)
+
+    @Shared FakeGitHubServer server
+    @Shared StringBuilder report = new StringBuilder()
+
+    @Rule
+    TemporaryFolder tmp = new TemporaryFolder()
+
+    def setupSpec() {
+        server = new FakeGitHubServer(SyntheticGitHubData.generate(issues, contributors, commits))
+        server.latencyMillis = Long.getLong("shipkit.loadTest.latencyMillis", 0)
+        server.start()
+        report.append("GitHub fetchers against fake GitHub API with $issues issues, $contributors contributors, " +
+                "$commits commits, latency ${server.latencyMillis} ms\n")
+    }
+
+    def cleanupSpec() {
+        server.stop()
+        println report
+    }
+
+    def "fetches tickets"() {
+        def tickets = (1..issues).findAll { it % 10 == 0 }.collect { it.toString() }
+
+        when:
+        def improvements = measure("GitHubTicketFetcher") {
+            new GitHubTicketFetcher().fetchTickets(server.apiUrl, "owner/repo", "token", tickets, [], false)
+        }
+
+        then:
+        improvements.size() == server.data.issues.findAll { it.number % 10 == 0 && it.state == "closed" }.size()
+    }
+
+    def "fetches all contributors"() {
+        def fetcher = new AllContributorsFetcher(new ContributorNameCache(tmp.newFile(), 0))
+
+        when:
+        def result = measure("AllContributorsFetcher") {
+            fetcher.fetchAllContributorsForProject(server.apiUrl, "owner/repo", "token")
+        }
+
+        then:
+        result.allContributors.size() == contributors
+        result.allContributors.find { it.login == "user1" }.name == "Synthetic User 1"
+    }
+
+    def "fetches recent contributors"() {
+        def since = new Date(SyntheticGitHubData.BASE_TIME)
+        def until = new Date(SyntheticGitHubData.BASE_TIME + (commits + 1) * 60000L)
+
+        when:
+        def result = measure("RecentContributorsFetcher") {
+            new RecentContributorsFetcher().fetchContributors(server.apiUrl, "owner/repo", "token", since, until)
+        }
+
+        then:
+        result.size() == server.data.commits*.login.unique().size()
+    }
+
+    private <T> T measure(String name, Closure<T> fetch) {
+        GitHubTransports.metrics.reset()
+        server.resetCounters()
+        long start = System.currentTimeMillis()
+        def result = fetch()
+        long time = System.currentTimeMillis() - start
+
+        report.append("\n$name: ${server.requests.get()} calls, ${server.bytes.get()} bytes, $time ms\n")
+        report.append(GitHubRequestMetrics.toSummary(GitHubTransports.metrics.requests))
+        result
+    }
+}
@@ -0,0 +1,82 @@
+package org.shipkit.internal.notes.contributors
+
+import groovy.json.JsonOutput
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import org.shipkit.internal.notes.util.GitHubRequest
+import org.shipkit.internal.notes.util.GitHubResponse
+import org.shipkit.internal.notes.util.GitHubTransport
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class AllContributorsFetcherTest extends Specification {
+
+    @Rule
+    TemporaryFolder tmp = new TemporaryFolder()
+
+    def contributors = [
+            [login: "alice", contributions: 30],
+            [login: "bob", contributions: 20],
+            [login: "carol", contributions: 10],
+            [login: "dave", contributions: 10]
+    ].collect {
+        it + [html_url: "https://github.com/" + it.login, url: "https://api.github.com/users/" + it.login]
+    }
+    def names = [alice: "Alice Smith", bob: "Bob", carol: null, dave: "Dave"]
+
+    def "keeps order and names of contributors when user profiles are fetched out of order"() {
+        //profiles of the first contributors are delayed until the last profile was fetched
+        def lastProfileFetched = new CountDownLatch(1)
+        def completed = Collections.synchronizedList([])
+        def transport = { GitHubRequest request ->
+            if (request.url.contains("/contributors")) {
+                return response(contributors)
+            }
+            def login = request.url.find(/users\/(\w+)/) { all, login -> login }
+            if (login != "dave") {
+                assert lastProfileFetched.await(10, TimeUnit.SECONDS)
+            }
+            completed << login
+            if (login == "dave") {
+                lastProfileFetched.countDown()
+            }
+            response([login: login, name: names[login]])
+        } as GitHubTransport
+
+        when:
+        def result = new AllContributorsFetcher(new ContributorNameCache(tmp.newFile(), 0), 4, transport)
+                .fetchAllContributorsForProject("https://api.github.com", "mockito/mockito", "token")
+
+        then:
+        completed.first() == "dave"
+
+        and:
+        result.allContributors.collect { it.toString() } == ["Alice Smith/alice[30]", "Bob/bob[20]", "Dave/dave[10]", "/carol[10]"]
+        result.toConfigNotation() == ["alice:Alice Smith", "bob:Bob", "dave:Dave", "carol:carol"]
+    }
+
+    def "result does not depend on the number of parallel profile requests"() {
+        def transport = { GitHubRequest request ->
+            if (request.url.contains("/contributors")) {
+                return response(contributors)
+            }
+            def login = request.url.find(/users\/(\w+)/) { all, login -> login }
+            response([login: login, name: names[login]])
+        } as GitHubTransport
+
+        when:
+        def sequential = new AllContributorsFetcher(new ContributorNameCache(tmp.newFile(), 0), 1, transport)
+                .fetchAllContributorsForProject("https://api.github.com", "mockito/mockito", "token")
+        def parallel = new AllContributorsFetcher(new ContributorNameCache(tmp.newFile(), 0), 4, transport)
+                .fetchAllContributorsForProject("https://api.github.com", "mockito/mockito", "token")
+
+        then:
+        parallel.toConfigNotation() == sequential.toConfigNotation()
+    }
+
+    private static GitHubResponse response(Object json) {
+        new GitHubResponse(200, [:], JsonOutput.toJson(json).getBytes("UTF-8"), false)
+    }
+}
@@ -0,0 +1,64 @@
+package org.shipkit.internal.notes.contributors
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+class ContributorNameCacheTest extends Specification {
+
+    @Rule
+    TemporaryFolder tmp = new TemporaryFolder()
+
+    def now = 1000L
+
+    def "names expire after time to live"() {
+        def cache = cache(new File(tmp.root, "names.json"), 100)
+
+        when:
+        cache.putName("mockitoguy", "Szczepan Faber")
+
+        then:
+        cache.getName("mockitoguy") == "Szczepan Faber"
+        cache.getName("unknown") == null
+
+        when:
+        now += 101
+
+        then:
+        cache.getName("mockitoguy") == null
+    }
+
+    def "saves and loads names"() {
+        def file = new File(tmp.root, "cache/names.json")
+        def cache = cache(file, 100)
+        cache.putName("mockitoguy", "Szczepan Faber")
+        cache.putName("nameless", "")
+
+        when:
+        cache.save()
+        def loaded = ContributorNameCache.load(file, 1000)
+
+        then:
+        loaded.getName("mockitoguy") == "Szczepan Faber"
+        loaded.getName("nameless") == ""
+    }
+
+    def "zero time to live disables the cache"() {
+        def file = new File(tmp.root, "names.json")
+        def cache = cache(file, 0)
+
+        when:
+        cache.putName("mockitoguy", "Szczepan Faber")
+        cache.save()
+
+        then:
+        cache.getName("mockitoguy") == null
+        !file.exists()
+    }
+
+    private ContributorNameCache cache(File file, long ttl) {
+        new ContributorNameCache(file, ttl) {
+            long currentTimeMillis() { now }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.shipkit.internal.notes.contributors
 
 import spock.lang.Specification
 
+import static org.shipkit.internal.notes.contributors.GitHubContributorsProvider.addContributions
 import static org.shipkit.internal.notes.contributors.GitHubContributorsProvider.mergeContributors
 
 class GitHubContributorsProviderTest extends Specification {
@@ -26,4 +27,20 @@ class GitHubContributorsProviderTest extends Specification {
             new DefaultProjectContributor("c", "c", "c", 1)
         ] as LinkedHashSet
     }
+
+    def "adds contributions"() {
+        def set = new DefaultProjectContributorsSet()
+        set.addContributor(new DefaultProjectContributor("a", "a", "a", 10))
+        set.addContributor(new DefaultProjectContributor("b", "b", "b", 20))
+
+        def recent = [
+                new DefaultProjectContributor("b", "b", "b", 5), //will be increased
+                new DefaultProjectContributor("c", "c", "c", 3) //will be added
+        ]
+        when:
+        def result = addContributions(set, recent)
+
+        then:
+        result.allContributors.toString() == "[b/b[25], a/a[10], c/c[3]]"
+    }
 }
@@ -0,0 +1,122 @@
+package org.shipkit.internal.notes.contributors
+
+import groovy.json.JsonOutput
+import groovy.json.JsonSlurper
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import org.shipkit.internal.notes.util.GitHubRequest
+import org.shipkit.internal.notes.util.GitHubResponse
+import org.shipkit.internal.notes.util.GitHubTransport
+import spock.lang.Specification
+
+class GitHubGraphQLContributorsFetcherTest extends Specification {
+
+    @Rule
+    TemporaryFolder tmp = new TemporaryFolder()
+
+    static final String CONTRIBUTORS_URL = "https://api.github.com/repos/mockito/mockito/contributors?access_token=token&per_page=100"
+
+    //two pages of contributors, as listed by the REST API
+    def pages = [
+            [[login: "alice", contributions: 30], [login: "bob", contributions: 20]],
+            [[login: "carol", contributions: 10], [login: "dave", contributions: 5]]
+    ].collect { page ->
+        page.collect { it + [html_url: "https://github.com/" + it.login, url: "https://api.github.com/users/" + it.login] }
+    }
+    def names = [alice: "Alice Smith", bob: "Bob", carol: null, dave: "Dave"]
+    def queries = []
+
+    def "queries names of users using aliases"() {
+        expect:
+        GitHubGraphQLContributorsFetcher.query(["mockitoguy", "epeee"]) ==
+                'query { u0: user(login: "mockitoguy") { login name } u1: user(login: "epeee") { login name } }'
+    }
+
+    def "maps aliased users back to contributors on every page"() {
+        when:
+        def result = fetcher().fetchAllContributorsForProject("https://api.github.com", "mockito/mockito", "token")
+
+        then: "aliases start from 'u0' on every page"
+        queries == ['query { u0: user(login: "alice") { login name } u1: user(login: "bob") { login name } }',
+                    'query { u0: user(login: "carol") { login name } u1: user(login: "dave") { login name } }']
+
+        and:
+        result.toConfigNotation() == ["alice:Alice Smith", "bob:Bob", "carol:carol", "dave:Dave"]
+    }
+
+    def "tolerates users that are not found"() {
+        names.remove("dave")
+
+        when:
+        def result = fetcher().fetchAllContributorsForProject("https://api.github.com", "mockito/mockito", "token")
+
+        then:
+        result.allContributors.find { it.login == "dave" }.name == ""
+        result.allContributors.find { it.login == "carol" }.name == ""
+        result.allContributors.find { it.login == "alice" }.name == "Alice Smith"
+    }
+
+    def "keeps contributors with missing or renamed login, using the login as the name"() {
+        //renamed user: the contributors listing still has the old login, GraphQL reports it as NOT_FOUND
+        names.remove("bob")
+        names.remove("dave")
+
+        when:
+        def result = fetcher().fetchAllContributorsForProject("https://api.github.com", "mockito/mockito", "token")
+
+        then:
+        result.allContributors.size() == 4
+        result.allContributors.collect { it.toString() } == ["Alice Smith/alice[30]", "/bob[20]", "/carol[10]", "/dave[5]"]
+        result.toConfigNotation() == ["alice:Alice Smith", "bob:bob", "carol:carol", "dave:dave"]
+    }
+
+    def "contributions and order are the same as when names are fetched with REST API"() {
+        when:
+        def graphQL = fetcher().fetchAllContributorsForProject("https://api.github.com", "mockito/mockito", "token")
+        def rest = new AllContributorsFetcher(new ContributorNameCache(tmp.newFile(), 0), 1, transport())
+                .fetchAllContributorsForProject("https://api.github.com", "mockito/mockito", "token")
+
+        then:
+        graphQL.allContributors.collect { it.toString() } == ["Alice Smith/alice[30]", "Bob/bob[20]", "/carol[10]", "Dave/dave[5]"]
+        graphQL.allContributors.collect { it.toString() } == rest.allContributors.collect { it.toString() }
+    }
+
+    private GitHubGraphQLContributorsFetcher fetcher() {
+        new GitHubGraphQLContributorsFetcher(new ContributorNameCache(tmp.newFile(), 0), transport())
+    }
+
+    /**
+     * Fake GitHub: REST list of contributors, REST user profiles and GraphQL 'user' queries.
+     * GraphQL results are returned in reversed order, the way JSON objects don't guarantee any order.
+     */
+    private GitHubTransport transport() {
+        return { GitHubRequest request ->
+            if (request.url.contains("/contributors")) {
+                def page = request.url.contains("page=2") ? 1 : 0
+                def link = "<${CONTRIBUTORS_URL}&page=2>; rel=\"next\", <${CONTRIBUTORS_URL}&page=2>; rel=\"last\""
+                return response(pages[page], page == 0 ? [Link: [link.toString()]] : [:])
+            }
+            if (request.url.endsWith("/graphql")) {
+                String query = new JsonSlurper().parseText(request.body).query
+                queries << query
+                def data = [:]
+                def errors = []
+                query.findAll(/(u\d+): user\(login: "(\w+)"\)/) { all, alias, login -> [alias, login] }.reverse().each { alias, login ->
+                    if (names.containsKey(login)) {
+                        data[alias] = [login: login, name: names[login]]
+                    } else {
+                        data[alias] = null
+                        errors << [type: "NOT_FOUND", path: [alias], message: "Could not resolve to a User with the login of '$login'."]
+                    }
+                }
+                return response(errors ? [data: data, errors: errors] : [data: data], [:])
+            }
+            def login = request.url.find(/users\/(\w+)/) { all, login -> login }
+            response([login: login, name: names[login]], [:])
+        } as GitHubTransport
+    }
+
+    private static GitHubResponse response(Object json, Map headers) {
+        new GitHubResponse(200, headers, JsonOutput.toJson(json).getBytes("UTF-8"), false)
+    }
+}
@@ -0,0 +1,69 @@
+package org.shipkit.internal.notes.improvements
+
+import org.shipkit.internal.notes.util.GitHubRequest
+import org.shipkit.internal.notes.util.GitHubResponse
+import org.shipkit.internal.notes.util.GitHubTransport
+import spock.lang.Specification
+
+class GitHubGraphQLTicketFetcherTest extends Specification {
+
+    def transport = Mock(GitHubTransport)
+    def fetcher = new GitHubGraphQLTicketFetcher(transport)
+
+    def "queries tickets using aliases"() {
+        def query = GitHubGraphQLTicketFetcher.query("mockito/shipkit", [20L, 3L])
+
+        expect:
+        query.startsWith('query { repository(owner: "mockito", name: "shipkit") {')
+        query.contains("t20: issueOrPullRequest(number: 20)")
+        query.contains("t3: issueOrPullRequest(number: 3)")
+    }
+
+    def "fetches closed tickets with requested labels"() {
+        when:
+        def result = fetcher.fetchTickets("https://api.github.com", "mockito/shipkit", "token", ["1", "2", "3", "4"], ["bug"], false)
+
+        then:
+        1 * transport.execute({ GitHubRequest r ->
+            r.method == "POST" && r.url == "https://api.github.com/graphql" && r.headers["Authorization"] == "bearer token"
+        }) >> response('''{"data": {"repository": {
+            "t4": {"__typename": "PullRequest", "number": 4, "title": "Fix", "url": "http://pr/4", "state": "MERGED", "labels": {"nodes": [{"name": "bug"}]}},
+            "t3": {"__typename": "Issue", "number": 3, "title": "Open", "url": "http://issue/3", "state": "OPEN", "labels": {"nodes": [{"name": "bug"}]}},
+            "t2": {"__typename": "Issue", "number": 2, "title": "Noise", "url": "http://issue/2", "state": "CLOSED", "labels": {"nodes": []}},
+            "t1": null}},
+            "errors": [{"type": "NOT_FOUND", "path": ["repository", "t1"]}]}''')
+
+        result.size() == 1
+        def improvement = result[0]
+        improvement.id == 4
+        improvement.title == "Fix"
+        improvement.url == "http://pr/4"
+        improvement.labels == ["bug"] as Set
+        improvement.pullRequest
+    }
+
+    def "queries in batches"() {
+        def tickets = (1..120).collect { it.toString() }
+
+        when:
+        def result = fetcher.fetchTickets("https://api.github.com", "mockito/shipkit", "token", tickets, [], true)
+
+        then:
+        3 * transport.execute(_) >> response('{"data": {"repository": {}}}')
+        result.empty
+    }
+
+    def "fails on unexpected errors"() {
+        when:
+        fetcher.fetchTickets("https://api.github.com", "mockito/shipkit", "token", ["1"], [], false)
+
+        then:
+        1 * transport.execute(_) >> response('{"data": null, "errors": [{"message": "Bad credentials"}]}')
+        def e = thrown(RuntimeException)
+        e.cause.message.contains("Bad credentials")
+    }
+
+    private static GitHubResponse response(String body) {
+        new GitHubResponse(200, [:], body.getBytes("UTF-8"), false)
+    }
+}
@@ -2,6 +2,8 @@ package org.shipkit.internal.notes.improvements
 
 import org.json.simple.JsonArray
 import org.json.simple.JsonObject
+import org.json.simple.Jsoner
+import org.shipkit.internal.notes.util.ProjectingJsonReader
 import spock.lang.Specification
 
 class GitHubImprovementsJSONTest extends Specification {
@@ -36,4 +38,18 @@ class GitHubImprovementsJSONTest extends Specification {
         i.labels.isEmpty()
         i.pullRequest
     }
+
+    def "projected issue fields are sufficient to parse improvement"() {
+        def json = """[{"number": 100, "title": "Some bugfix", "html_url": "http://issues/100", "body": "text",
+                "user": {"login": "foo"}, "labels": [{"id": 1, "name": "bugfix"}],
+                "pull_request": {"url": "http://pulls/100", "diff_url": "http://pulls/100.diff"}}]"""
+
+        when:
+        def projected = new ProjectingJsonReader(new ByteArrayInputStream(json.getBytes("UTF-8")), GitHubImprovementsJSON.ISSUE_FIELDS).readArray()[0]
+        def full = (Jsoner.deserialize(json) as List)[0]
+
+        then:
+        GitHubImprovementsJSON.toImprovement(projected) == GitHubImprovementsJSON.toImprovement(full)
+        GitHubImprovementsJSON.toImprovement(projected).pullRequest
+    }
 }
@@ -0,0 +1,148 @@
+package org.shipkit.internal.notes.improvements
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import org.shipkit.internal.notes.model.ContributionSet
+import org.shipkit.internal.notes.util.GitHubTransports
+import org.shipkit.internal.notes.util.LruCache
+import spock.lang.Shared
+import spock.lang.Specification
+import testutil.FakeGitHubServer
+import testutil.SyntheticGitHubData
+
+class GitHubImprovementsProviderTest extends Specification {
+
+    @Shared FakeGitHubServer server
+
+    @Rule
+    TemporaryFolder tmp = new TemporaryFolder()
+
+    String originalGradleUserHome
+    File gradleUserHome
+    def stores = new LruCache<String, GitHubTicketStore>(16)
+
+    def setupSpec() {
+        server = new FakeGitHubServer(SyntheticGitHubData.generate(50, 5, 10)).start()
+    }
+
+    def cleanupSpec() {
+        server.stop()
+    }
+
+    def setup() {
+        originalGradleUserHome = System.getProperty("gradle.user.home")
+        gradleUserHome = tmp.newFolder("gradle-user-home")
+        System.setProperty("gradle.user.home", gradleUserHome.absolutePath)
+    }
+
+    def cleanup() {
+        GitHubTransports.endBuild()
+        if (originalGradleUserHome == null) {
+            System.clearProperty("gradle.user.home")
+        } else {
+            System.setProperty("gradle.user.home", originalGradleUserHome)
+        }
+    }
+
+    def "replays fixtures recorded with warm ticket store on a machine without the store"() {
+        def fixtures = tmp.newFolder("fixtures")
+        def contributions = contributions(["10", "20", "30"])
+
+        //the developer machine has the ticket store from previous builds
+        def expected = inBuild { provider().getImprovements(contributions, [], false, null) }
+        assert GitHubTicketStore.getStoreFile(server.apiUrl, "owner/repo").file
+
+        when:
+        inBuild {
+            GitHubTransports.recordFixtures(fixtures)
+            provider().getImprovements(contributions, [], false, null)
+        }
+
+        and: "replayed on a clean machine"
+        assert gradleUserHome.deleteDir()
+        def requestsBeforeReplay = server.requests.get()
+        def replayed = inBuild {
+            GitHubTransports.replayFixtures(fixtures)
+            provider().getImprovements(contributions, [], false, null)
+        }
+
+        then:
+        replayed*.id == expected*.id
+        replayed*.title == expected*.title
+        server.requests.get() == requestsBeforeReplay
+    }
+
+    def "uses empty Shipkit cache dir while recording fixtures"() {
+        def regularCacheDir = GitHubTransports.shipkitCacheDir
+
+        when:
+        GitHubTransports.recordFixtures(tmp.newFolder("fixtures"))
+
+        then:
+        GitHubTransports.usingFixtures
+        GitHubTransports.shipkitCacheDir != regularCacheDir
+        GitHubTransports.shipkitCacheDir.list() == [] as String[]
+
+        when:
+        GitHubTransports.endBuild()
+
+        then:
+        !GitHubTransports.usingFixtures
+        GitHubTransports.shipkitCacheDir == regularCacheDir
+    }
+
+    def "reuses ticket store loaded by previous build"() {
+        def contributions = contributions(["10", "20", "30"])
+        def expected = inBuild { provider().getImprovements(contributions, [], false, null) }
+        def storeFile = GitHubTicketStore.getStoreFile(server.apiUrl, "owner/repo")
+        def store = stores.get(GitHubImprovementsProvider.storeKey(storeFile))
+
+        //the store is not read from the file again, as long as the file is not modified
+        def lastModified = storeFile.lastModified()
+        storeFile.text = "not a ticket store"
+        assert storeFile.setLastModified(lastModified)
+
+        when:
+        def improvements = inBuild { provider().getImprovements(contributions, [], false, null) }
+
+        then:
+        store != null
+        stores.get(GitHubImprovementsProvider.storeKey(storeFile)).is(store)
+        improvements*.id == expected*.id
+        improvements*.title == expected*.title
+    }
+
+    def "loads ticket store again when the file was modified by different process"() {
+        def contributions = contributions(["10", "20", "30"])
+        inBuild { provider().getImprovements(contributions, [], false, null) }
+        def storeFile = GitHubTicketStore.getStoreFile(server.apiUrl, "owner/repo")
+        def store = stores.get(GitHubImprovementsProvider.storeKey(storeFile))
+        assert storeFile.setLastModified(storeFile.lastModified() - 10000)
+
+        when:
+        inBuild { provider().getImprovements(contributions, [], false, null) }
+
+        then:
+        !stores.get(GitHubImprovementsProvider.storeKey(storeFile)).is(store)
+    }
+
+    private GitHubImprovementsProvider provider() {
+        new GitHubImprovementsProvider(server.apiUrl, "owner/repo", "token", false, stores)
+    }
+
+    private ContributionSet contributions(List<String> tickets) {
+        Stub(ContributionSet) {
+            getAllTickets() >> tickets
+            getAllCommits() >> []
+        }
+    }
+
+    private static <T> T inBuild(Closure<T> build) {
+        GitHubTransports.beginBuild()
+        try {
+            return build()
+        } finally {
+            GitHubTransports.endBuild()
+        }
+    }
+}
@@ -1,14 +1,41 @@
 package org.shipkit.internal.notes.improvements
 
+import groovy.json.JsonOutput
+import org.shipkit.internal.notes.util.GitHubRequest
+import org.shipkit.internal.notes.util.GitHubResponse
+import org.shipkit.internal.notes.util.GitHubTransport
 import spock.lang.Ignore
 import spock.lang.Specification
 import spock.lang.Subject
 
-@Ignore
 class GitHubTicketFetcherTest extends Specification {
 
     @Subject fetcher = new GitHubTicketFetcher()
 
+    def "looks up tickets directly when the newest issue is far above the referenced tickets"() {
+        def requests = []
+        def transport = { GitHubRequest r ->
+            requests << r.url
+            if (r.url.contains("per_page=1&") || r.url.endsWith("per_page=1")) {
+                //5000 closed issues, the newest is #5000
+                return response([issue(5000)], ['<https://api.github.com/repos/mockito/mockito/issues?page=5000&per_page=1>; rel="last"'])
+            }
+            def number = r.url.find(/issues\/(\d+)/) { all, n -> n }
+            assert number: "unexpected request: $r.url"
+            response(issue(number as int), [])
+        } as GitHubTransport
+
+        when:
+        def improvements = new GitHubTicketFetcher(transport, null)
+                .fetchTickets("https://api.github.com", "mockito/mockito", "token", ["1000", "990", "980"], [], false)
+
+        then:
+        improvements*.id == [1000L, 990L, 980L]
+        requests.size() == 4
+        !requests.find { it.contains("per_page=100") }
+    }
+
+    @Ignore
     //This is an integration test
     //It's not ideal but it gives us a good smoke test
     //So far it is not problematic to maintain :)
@@ -25,4 +52,13 @@ class GitHubTicketFetcherTest extends Specification {
 DefaultImprovement{id=109, title='Improve automated release notes look', url='https://github.com/mockito/mockito/issues/109', labels=[continuous integration, enhancement], isPullRequest=false}
 DefaultImprovement{id=108, title='Clarify Spy vs Mock CALLS_REAL_METHODS', url='https://github.com/mockito/mockito/issues/108', labels=[], isPullRequest=false}"""
     }
+
+    private static Map issue(int number) {
+        [number: number, title: "Issue " + number, html_url: "https://github.com/mockito/mockito/issues/" + number,
+         state: "closed", labels: []]
+    }
+
+    private static GitHubResponse response(Object json, List<String> link) {
+        new GitHubResponse(200, link ? ["Link": link] : [:], JsonOutput.toJson(json).getBytes("UTF-8"), false)
+    }
 }
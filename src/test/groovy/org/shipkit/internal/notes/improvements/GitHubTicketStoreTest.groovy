@@ -0,0 +1,70 @@
+package org.shipkit.internal.notes.improvements
+
+import org.json.simple.Jsoner
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+class GitHubTicketStoreTest extends Specification {
+
+    @Rule
+    TemporaryFolder tmp = new TemporaryFolder()
+
+    def "answers only closed tickets with all the labels"() {
+        def store = new GitHubTicketStore(tmp.newFile())
+        store.put(issue(10, "closed", ["bug", "noteworthy"], true))
+        store.put(issue(11, "open", ["bug"], false))
+        store.put(issue(12, "closed", [], false))
+
+        expect:
+        store.contains(10)
+        store.contains(11)
+        !store.contains(13)
+
+        store.getImprovement(10, ["bug"], true).title == "Ticket 10"
+        store.getImprovement(11, [], false) == null
+        store.getImprovement(12, ["bug"], false) == null
+        store.getImprovement(12, [], true) == null
+        store.getImprovement(12, [], false).url == "https://github.com/mockito/shipkit/issues/12"
+    }
+
+    def "saves and loads tickets"() {
+        def file = new File(tmp.root, "store/tickets.json")
+        def store = new GitHubTicketStore(file)
+        store.put(issue(10, "closed", ["bug"], true))
+        store.lastSync = new Date(1000)
+
+        when:
+        store.save()
+        def loaded = GitHubTicketStore.load(file)
+
+        then:
+        loaded.lastSync == new Date(1000)
+        loaded.size() == 1
+        def i = loaded.getImprovement(10, [], false)
+        i.id == 10
+        i.labels == ["bug"] as Set
+        i.pullRequest
+    }
+
+    def "corrupted store is empty"() {
+        def file = tmp.newFile()
+        file << "not json"
+
+        when:
+        def store = GitHubTicketStore.load(file)
+
+        then:
+        store.size() == 0
+        store.lastSync == null
+    }
+
+    private static issue(long number, String state, List<String> labels, boolean pullRequest) {
+        def json = [number: number, title: "Ticket " + number, html_url: "https://github.com/mockito/shipkit/issues/" + number,
+                    state: state, updated_at: "2017-05-01T10:00:00Z", labels: labels.collect { [name: it] }]
+        if (pullRequest) {
+            json.pull_request = [url: "https://api.github.com/repos/mockito/shipkit/pulls/" + number]
+        }
+        Jsoner.deserialize(Jsoner.serialize(json))
+    }
+}
@@ -0,0 +1,72 @@
+package org.shipkit.internal.notes.improvements
+
+import spock.lang.Specification
+
+class TicketFetchPlanTest extends Specification {
+
+    def "scans pages when tickets are close to each other"() {
+        def plan = TicketFetchPlan.plan([100L, 95L, 90L, 80L], 30)
+
+        expect:
+        plan.scannedTickets == [100L, 95L, 90L, 80L]
+        plan.directTickets.empty
+        plan.requestCount == 1
+    }
+
+    def "looks up tickets directly when they are far apart"() {
+        def plan = TicketFetchPlan.plan([1000L, 500L, 10L], 30)
+
+        expect:
+        plan.scannedTickets == [1000L]
+        plan.directTickets == [500L, 10L]
+        plan.requestCount == 3
+        plan.toString() == "page scan of ~1 page(s) for 1 recent ticket(s) (down to #1000) and direct lookup of 2 older ticket(s)"
+    }
+
+    def "scans recent range and looks up outliers"() {
+        def plan = TicketFetchPlan.plan([1000L, 990L, 980L, 975L, 960L, 12L, 12L], 30)
+
+        expect:
+        plan.scannedTickets == [1000L, 990L, 980L, 975L, 960L]
+        plan.directTickets == [12L]
+        plan.requestCount == 3
+    }
+
+    def "counts pages from the newest issue of the scanned listing"() {
+        //referenced tickets are close to each other, but the scan starts 4000 issues above them
+        def plan = TicketFetchPlan.plan([1000L, 990L, 980L], 100, 5000L, 5000)
+
+        expect:
+        plan.scannedTickets.empty
+        plan.directTickets == [1000L, 990L, 980L]
+        plan.requestCount == 3
+    }
+
+    def "scans when the listing is short"() {
+        //the listing bounded by the update date has only 150 issues
+        def plan = TicketFetchPlan.plan([1000L, 990L, 980L], 100, 5000L, 150)
+
+        expect:
+        plan.scannedTickets == [1000L, 990L, 980L]
+        plan.directTickets.empty
+        plan.requestCount == 2
+    }
+
+    def "direct plan"() {
+        def plan = TicketFetchPlan.direct([10L, 20L])
+
+        expect:
+        plan.scannedTickets.empty
+        plan.directTickets == [20L, 10L]
+        plan.requestCount == 2
+    }
+
+    def "empty plan"() {
+        def plan = TicketFetchPlan.plan([], 30)
+
+        expect:
+        plan.scannedTickets.empty
+        plan.directTickets.empty
+        plan.requestCount == 0
+    }
+}
@@ -0,0 +1,95 @@
+package org.shipkit.internal.notes.util
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+class CachingGitHubTransportTest extends Specification {
+
+    @Rule TemporaryFolder tmp = new TemporaryFolder()
+
+    def delegate = Mock(GitHubTransport)
+
+    def "serves not modified response from disk, including the headers"() {
+        def transport = new CachingGitHubTransport(delegate, tmp.root)
+        def request = GitHubRequest.get("https://api.github.com/issues?access_token=secret&page=1")
+
+        when:
+        def first = transport.execute(request)
+
+        then:
+        1 * delegate.execute({ !it.headers.containsKey("If-None-Match") }) >> new GitHubResponse(200,
+                ["ETag": ['"abc"'], "Link": ['<https://next>; rel="next"'], "X-RateLimit-Remaining": ["10"]],
+                "[1]".getBytes("UTF-8"), false)
+        first.content == "[1]"
+
+        when:
+        def second = new CachingGitHubTransport(delegate, tmp.root).execute(request)
+
+        then:
+        1 * delegate.execute({ it.headers["If-None-Match"] == '"abc"' }) >> new GitHubResponse(304,
+                ["X-RateLimit-Remaining": ["9"]], new byte[0], false)
+        second.statusCode == 200
+        second.content == "[1]"
+        second.getHeader("Link") == '<https://next>; rel="next"'
+        second.getHeader("X-RateLimit-Remaining") == "9"
+    }
+
+    def "does not store the token and pages with the token of the current request"() {
+        def link = '<https://api.github.com/issues?access_token=old-secret&page=2>; rel="next", ' +
+                '<https://api.github.com/issues?access_token=old-secret&page=2>; rel="last"'
+
+        when:
+        new CachingGitHubTransport(delegate, tmp.root).execute(GitHubRequest.get("https://api.github.com/issues?access_token=old-secret&page=1"))
+
+        then:
+        1 * delegate.execute(_) >> new GitHubResponse(200, ["ETag": ['"abc"'], "Link": [link]], "[1]".getBytes("UTF-8"), false)
+        tmp.root.listFiles().every { !it.text.contains("old-secret") }
+
+        when: "the token was changed"
+        def fetcher = new GitHubListFetcher("https://api.github.com/issues?access_token=new-secret&page=1", 1, null,
+                new CachingGitHubTransport(delegate, tmp.root))
+        def pages = []
+        while (fetcher.hasNextPage()) {
+            pages << fetcher.nextPage()
+        }
+
+        then:
+        1 * delegate.execute({ it.url.endsWith("page=1") }) >> new GitHubResponse(304, [:], new byte[0], false)
+        1 * delegate.execute({ it.url == "https://api.github.com/issues?access_token=new-secret&page=2" }) >>
+                new GitHubResponse(200, [:], "[2]".getBytes("UTF-8"), false)
+        0 * delegate._
+        pages.size() == 2
+    }
+
+    def "replaces token in cached values"() {
+        expect:
+        CachingGitHubTransport.token("https://api.github.com/issues?access_token=secret&page=1") == "secret"
+        CachingGitHubTransport.token("https://api.github.com/users/foo") == ""
+        CachingGitHubTransport.withToken('<https://api.github.com/issues?access_token=***&page=2>; rel="next"', "new") ==
+                '<https://api.github.com/issues?access_token=new&page=2>; rel="next"'
+        CachingGitHubTransport.withToken('<https://api.github.com/issues?page=2&access_token=old>; rel="next"', "new") ==
+                '<https://api.github.com/issues?page=2&access_token=new>; rel="next"'
+    }
+
+    def "does not cache responses without validators"() {
+        def transport = new CachingGitHubTransport(delegate, tmp.root)
+        def request = GitHubRequest.get("https://api.github.com/users/foo")
+        delegate.execute(_) >> new GitHubResponse(200, [:], "{}".getBytes("UTF-8"), false)
+
+        when:
+        transport.execute(request)
+
+        then:
+        tmp.root.list().length == 0
+    }
+
+    def "strips token from cache key"() {
+        expect:
+        CachingGitHubTransport.stripToken("https://api.github.com/issues?access_token=secret&page=1") == "https://api.github.com/issues?page=1"
+        CachingGitHubTransport.stripToken("https://api.github.com/users/foo?access_token=secret") == "https://api.github.com/users/foo"
+        CachingGitHubTransport.stripToken("https://api.github.com/issues?page=1&access_token=secret") == "https://api.github.com/issues?page=1"
+        CachingGitHubTransport.cacheKey("https://api.github.com/issues?access_token=a&page=1") ==
+                CachingGitHubTransport.cacheKey("https://api.github.com/issues?access_token=b&page=1")
+    }
+}
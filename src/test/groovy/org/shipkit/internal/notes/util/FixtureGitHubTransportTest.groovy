@@ -0,0 +1,94 @@
+package org.shipkit.internal.notes.util
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+class FixtureGitHubTransportTest extends Specification {
+
+    @Rule
+    TemporaryFolder tmp = new TemporaryFolder()
+
+    def delegate = Mock(GitHubTransport)
+    def transport = new FixtureGitHubTransport(delegate)
+
+    def get = GitHubRequest.get("https://api.github.com/repos/mockito/mockito/issues?access_token=secret&page=1")
+
+    def "passes requests through when inactive"() {
+        def response = response(200)
+
+        when:
+        def r = transport.execute(get)
+
+        then:
+        1 * delegate.execute(get) >> response
+        r.is(response)
+        tmp.root.list().length == 0
+    }
+
+    def "records and replays exchanges without network"() {
+        def dir = tmp.newFolder()
+        transport.record(dir)
+
+        when:
+        def recorded = transport.execute(get)
+
+        then:
+        1 * delegate.execute(get) >> response(200)
+        recorded.getHeader("Link").contains("access_token=secret")
+
+        when:
+        transport.replay(dir)
+        def replayed = transport.execute(GitHubRequest.get("https://api.github.com/repos/mockito/mockito/issues?access_token=other&page=1"))
+
+        then:
+        0 * delegate._
+        replayed.statusCode == 200
+        replayed.content == '{"number":1}'
+        replayed.getHeader("Link") == '<https://api.github.com/repos/mockito/mockito/issues?access_token=***&page=2>; rel="next"'
+        replayed.getHeader("X-RateLimit-Remaining") == "4999"
+    }
+
+    def "does not store secrets"() {
+        def dir = tmp.newFolder()
+        transport.record(dir)
+        delegate.execute(_) >> response(200)
+
+        when:
+        transport.execute(get)
+        transport.execute(GitHubRequest.post("https://api.github.com/graphql", "{ viewer { login } }")
+                .withHeader("Authorization", "bearer secret"))
+
+        then:
+        dir.listFiles().size() == 4
+        dir.listFiles().every { !it.text.contains("secret") }
+    }
+
+    def "fails when replayed request was not recorded"() {
+        transport.replay(tmp.newFolder())
+
+        when:
+        transport.execute(get)
+
+        then:
+        def e = thrown(IOException)
+        e.message.contains("GitHub API exchange was not recorded, unable to replay: GET https://api.github.com/repos/mockito/mockito/issues?page=1")
+        0 * delegate._
+    }
+
+    def "ignores time dependent parameters when matching requests"() {
+        expect:
+        FixtureGitHubTransport.fixtureKey(GitHubRequest.get("https://api.github.com/repos/a/b/issues?since=2017-01-01T00:00:00Z&page=2")) ==
+                FixtureGitHubTransport.fixtureKey(GitHubRequest.get("https://api.github.com/repos/a/b/issues?since=2017-05-05T00:00:00Z&page=2"))
+        FixtureGitHubTransport.fixtureKey(GitHubRequest.get("https://api.github.com/repos/a/b/issues?page=1")) !=
+                FixtureGitHubTransport.fixtureKey(GitHubRequest.get("https://api.github.com/repos/a/b/issues?page=2"))
+        FixtureGitHubTransport.fixtureKey(GitHubRequest.post("https://api.github.com/graphql", "a")) !=
+                FixtureGitHubTransport.fixtureKey(GitHubRequest.post("https://api.github.com/graphql", "b"))
+    }
+
+    private static GitHubResponse response(int status) {
+        new GitHubResponse(status, [
+                "Link": ['<https://api.github.com/repos/mockito/mockito/issues?access_token=secret&page=2>; rel="next"'],
+                "X-RateLimit-Remaining": ["4999"]], '{"number":1}'.bytes, false)
+    }
+}
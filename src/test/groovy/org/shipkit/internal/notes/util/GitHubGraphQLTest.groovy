@@ -0,0 +1,41 @@
+package org.shipkit.internal.notes.util
+
+import spock.lang.Specification
+
+class GitHubGraphQLTest extends Specification {
+
+    def transport = Mock(GitHubTransport)
+    def graphQL = new GitHubGraphQL("https://api.github.com", "token", transport)
+
+    def "graphQL url"() {
+        expect:
+        GitHubGraphQL.graphQLUrl("https://api.github.com") == "https://api.github.com/graphql"
+        GitHubGraphQL.graphQLUrl("https://github.company.com/api/v3") == "https://github.company.com/api/graphql"
+    }
+
+    def "posts query and returns data"() {
+        when:
+        def data = graphQL.query('query { viewer { login } }')
+
+        then:
+        1 * transport.execute({ GitHubRequest r ->
+            r.method == "POST" && r.url == "https://api.github.com/graphql" && r.headers["Authorization"] == "bearer token" &&
+                    r.body.contains('viewer { login }')
+        }) >> response('{"data": {"viewer": {"login": "shipkit"}}}')
+        data.viewer.login == "shipkit"
+    }
+
+    def "tolerates objects that are not found"() {
+        when:
+        def data = graphQL.query('query { u0: user(login: "ghost") { name } }')
+
+        then:
+        1 * transport.execute(_) >> response('{"data": {"u0": null}, "errors": [{"type": "NOT_FOUND", "path": ["u0"]}]}')
+        data.containsKey("u0")
+        data.u0 == null
+    }
+
+    private static GitHubResponse response(String body) {
+        new GitHubResponse(200, [:], body.getBytes("UTF-8"), false)
+    }
+}
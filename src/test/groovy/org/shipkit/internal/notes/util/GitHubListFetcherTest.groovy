@@ -0,0 +1,68 @@
+package org.shipkit.internal.notes.util
+
+import spock.lang.Specification
+
+import static org.shipkit.internal.notes.util.GitHubListFetcher.extractRelativeLink
+import static org.shipkit.internal.notes.util.GitHubListFetcher.pageNumber
+import static org.shipkit.internal.notes.util.GitHubListFetcher.withPage
+
+class GitHubListFetcherTest extends Specification {
+
+    def link = '<https://api.github.com/repositories/62207167/issues?access_token=xyz&state=closed&page=2>; rel="next", ' +
+            '<https://api.github.com/repositories/62207167/issues?access_token=xyz&state=closed&page=34>; rel="last"'
+
+    def "extracts relative links"() {
+        expect:
+        extractRelativeLink(link, "next") == "https://api.github.com/repositories/62207167/issues?access_token=xyz&state=closed&page=2"
+        extractRelativeLink(link, "last") == "https://api.github.com/repositories/62207167/issues?access_token=xyz&state=closed&page=34"
+        extractRelativeLink(link, "prev") == "none"
+        extractRelativeLink(null, "next") == "none"
+    }
+
+    def "reads page number"() {
+        expect:
+        pageNumber("https://api.github.com/issues?page=7&state=closed") == 7
+        pageNumber("https://api.github.com/issues?state=closed&page=12") == 12
+        pageNumber("https://api.github.com/issues?per_page=100&page=3") == 3
+        pageNumber("https://api.github.com/issues?state=closed") == -1
+    }
+
+    def "replaces page number"() {
+        expect:
+        withPage("https://api.github.com/issues?page=7&state=closed", 3) == "https://api.github.com/issues?page=3&state=closed"
+        withPage("https://api.github.com/issues?per_page=100&page=34", 5) == "https://api.github.com/issues?per_page=100&page=5"
+    }
+
+    def "fails when there is no page number to replace"() {
+        when:
+        withPage("https://api.github.com/issues?state=closed", 3)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "fetches remaining pages concurrently and returns them in order"() {
+        def transport = Mock(GitHubTransport)
+        def fetcher = new GitHubListFetcher("https://api.github.com/issues?page=1", 2, null, transport)
+        def lastLink = '<https://api.github.com/issues?page=2>; rel="next", <https://api.github.com/issues?page=4>; rel="last"'
+
+        transport.execute({ it.url.endsWith("page=1") }) >> response('[{"n": 1}]', lastLink)
+        transport.execute({ it.url.endsWith("page=2") }) >> response('[{"n": 2}]', null)
+        transport.execute({ it.url.endsWith("page=3") }) >> response('[{"n": 3}]', null)
+        transport.execute({ it.url.endsWith("page=4") }) >> response('[{"n": 4}]', null)
+
+        when:
+        def pages = []
+        while (fetcher.hasNextPage()) {
+            pages << fetcher.nextPage()[0].n
+        }
+
+        then:
+        pages == [1, 2, 3, 4]
+    }
+
+    private static GitHubResponse response(String content, String link) {
+        def headers = link ? ["Link": [link]] : [:]
+        new GitHubResponse(200, headers, content.getBytes("UTF-8"), false)
+    }
+}
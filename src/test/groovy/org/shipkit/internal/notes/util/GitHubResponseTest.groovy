@@ -0,0 +1,61 @@
+package org.shipkit.internal.notes.util
+
+import spock.lang.Specification
+
+import java.util.zip.GZIPOutputStream
+
+class GitHubResponseTest extends Specification {
+
+    def "reads plain content"() {
+        def r = new GitHubResponse(200, [:], '{"a": 1}'.getBytes("UTF-8"), false)
+
+        expect:
+        r.content == '{"a": 1}'
+        r.successful
+    }
+
+    def "decompresses gzipped content"() {
+        def bytes = new ByteArrayOutputStream()
+        def gzip = new GZIPOutputStream(bytes)
+        gzip.write('[1, 2, 3]'.getBytes("UTF-8"))
+        gzip.close()
+
+        def r = new GitHubResponse(200, [:], bytes.toByteArray(), true)
+
+        expect:
+        r.content == '[1, 2, 3]'
+    }
+
+    def "headers are case insensitive and status line is ignored"() {
+        def r = new GitHubResponse(200, [(null): ["HTTP/1.1 200 OK"], "X-RateLimit-Remaining": ["42"]], new byte[0], false)
+
+        expect:
+        r.getHeader("x-ratelimit-remaining") == "42"
+        r.getHeader("Link") == null
+        r.headers.size() == 1
+    }
+
+    def "fails when unsuccessful"() {
+        def r = new GitHubResponse(502, [:], "Bad Gateway".getBytes("UTF-8"), false)
+
+        when:
+        r.ensureSuccessful(GitHubRequest.get("https://api.github.com/foo"))
+
+        then:
+        def e = thrown(IOException)
+        e.message.contains("502")
+        e.message.contains("Bad Gateway")
+    }
+
+    def "does not reveal the token when unsuccessful"() {
+        def r = new GitHubResponse(401, [:], "Bad credentials".getBytes("UTF-8"), false)
+
+        when:
+        r.ensureSuccessful(GitHubRequest.get("https://api.github.com/issues?access_token=secret&page=2"))
+
+        then:
+        def e = thrown(IOException)
+        e.message.contains("GET https://api.github.com/issues?page=2")
+        !e.message.contains("secret")
+    }
+}
@@ -0,0 +1,34 @@
+package org.shipkit.internal.notes.util
+
+import spock.lang.Specification
+
+class LruCacheTest extends Specification {
+
+    def cache = new LruCache<String, String>(2)
+
+    def "evicts least recently used entry"() {
+        cache.put("a", "1")
+        cache.put("b", "2")
+
+        when:
+        cache.get("a")
+        cache.put("c", "3")
+
+        then:
+        cache.size() == 2
+        cache.get("a") == "1"
+        cache.get("b") == null
+        cache.get("c") == "3"
+    }
+
+    def "clears entries"() {
+        cache.put("a", "1")
+
+        when:
+        cache.clear()
+
+        then:
+        cache.size() == 0
+        cache.get("a") == null
+    }
+}
@@ -0,0 +1,52 @@
+package org.shipkit.internal.notes.util
+
+import spock.lang.Specification
+
+class MemoizingGitHubTransportTest extends Specification {
+
+    def delegate = Mock(GitHubTransport)
+    def transport = new MemoizingGitHubTransport(delegate)
+
+    def get = GitHubRequest.get("https://api.github.com/users/foo?access_token=secret")
+
+    def "fetches the same resource only once within the build"() {
+        transport.begin()
+
+        when:
+        def r1 = transport.execute(get)
+        def r2 = transport.execute(GitHubRequest.get("https://api.github.com/users/foo?access_token=other"))
+
+        then:
+        1 * delegate.execute(get) >> response(200)
+        r1.is(r2)
+    }
+
+    def "does not remember failures"() {
+        transport.begin()
+
+        when:
+        transport.execute(get)
+        def r = transport.execute(get)
+
+        then:
+        1 * delegate.execute(get) >> response(500)
+        1 * delegate.execute(get) >> response(200)
+        r.statusCode == 200
+    }
+
+    def "does not remember outside of the build"() {
+        when:
+        transport.execute(get)
+        transport.begin()
+        transport.execute(get)
+        transport.end()
+        transport.execute(get)
+
+        then:
+        3 * delegate.execute(get) >> response(200)
+    }
+
+    private static GitHubResponse response(int status) {
+        new GitHubResponse(status, [:], "{}".getBytes("UTF-8"), false)
+    }
+}
@@ -0,0 +1,112 @@
+package org.shipkit.internal.notes.util
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+class MeteringGitHubTransportTest extends Specification {
+
+    @Rule
+    TemporaryFolder tmp = new TemporaryFolder()
+
+    def http = Mock(GitHubTransport)
+    def metrics = new GitHubRequestMetrics()
+    def memo = new MemoizingGitHubTransport(MeteringGitHubTransport.network(http))
+    def transport = new MeteringGitHubTransport(memo, metrics)
+
+    def get = GitHubRequest.get("https://api.github.com/repos/mockito/mockito/issues/123?access_token=secret")
+
+    def "records network calls and cache hits"() {
+        memo.begin()
+
+        when:
+        transport.execute(get)
+        transport.execute(get)
+
+        then:
+        1 * http.execute(get) >> response(200, "4999")
+
+        and:
+        def r = metrics.requests
+        r.size() == 2
+        r[0].method == "GET"
+        r[0].endpoint == "/repos/{owner}/{repo}/issues/{number}"
+        r[0].cache == GitHubRequestMetrics.CACHE_MISS
+        r[0].status == 200
+        r[0].bytes == 2
+        r[0].networkCalls == 1
+        r[0].rateLimitRemaining == 4999
+        r[0].rateLimitConsumed == 1
+
+        r[1].cache == GitHubRequestMetrics.CACHE_HIT
+        r[1].networkCalls == 0
+        r[1].rateLimitConsumed == 0
+    }
+
+    def "revalidated responses do not consume rate limit"() {
+        when:
+        transport.execute(get)
+
+        then:
+        1 * http.execute(get) >> response(304, "4000")
+        metrics.requests[0].cache == GitHubRequestMetrics.CACHE_REVALIDATED
+        metrics.requests[0].rateLimitConsumed == 0
+    }
+
+    def "records failed requests"() {
+        http.execute(get) >> { throw new IOException("boom") }
+
+        when:
+        transport.execute(get)
+
+        then:
+        thrown(IOException)
+        metrics.requests[0].status == 0
+        metrics.requests[0].networkCalls == 1
+    }
+
+    def "writes report"() {
+        http.execute(_) >> response(200, "10")
+        transport.execute(get)
+        transport.execute(GitHubRequest.get("https://api.github.com/users/szczepiq"))
+        def dir = tmp.newFolder()
+
+        when:
+        metrics.writeReport(dir)
+
+        then:
+        def json = new File(dir, "github-api-metrics.json").text
+        json.contains('"rateLimitConsumed":2')
+        json.contains('{user}')
+        def summary = new File(dir, "github-api-metrics.txt").text
+        summary.startsWith("GitHub API requests: 2 (hits: 0, revalidated: 0, misses: 2, network calls: 2)")
+        summary.contains("Rate limit consumed: 2, remaining: 10")
+        summary.contains("GET /repos/{owner}/{repo}/issues/{number}")
+    }
+
+    def "does not write empty report"() {
+        def dir = tmp.newFolder()
+
+        when:
+        metrics.writeReport(dir)
+
+        then:
+        dir.list().length == 0
+    }
+
+    def "classifies endpoints"() {
+        expect:
+        GitHubRequestMetrics.endpointOf(url) == endpoint
+
+        where:
+        url                                                                                  | endpoint
+        "https://api.github.com/repos/mockito/mockito/contributors?per_page=100&page=2"     | "/repos/{owner}/{repo}/contributors"
+        "https://api.github.com/repos/mockito/mockito/commits/0123456789abcdef0123456789abcdef01234567" | "/repos/{owner}/{repo}/commits/{sha}"
+        "https://api.github.com/users/szczepiq"                                              | "/users/{user}"
+        "https://api.github.com/graphql"                                                     | "/graphql"
+    }
+
+    private static GitHubResponse response(int status, String remaining) {
+        new GitHubResponse(status, ["X-RateLimit-Remaining": [remaining]], "{}".bytes, false)
+    }
+}
@@ -0,0 +1,61 @@
+package org.shipkit.internal.notes.util
+
+import spock.lang.Specification
+
+class ProjectingJsonReaderTest extends Specification {
+
+    def issues = '''[
+      {
+        "number": 100,
+        "title": "Fix \\"quoted\\" text \\u0041",
+        "html_url": "https://github.com/mockito/mockito/issues/100",
+        "body": "long body with [brackets] and {braces}, and \\\\ escapes",
+        "user": {"login": "szczepiq", "id": 123, "site_admin": false},
+        "labels": [{"id": 1, "name": "bugfix", "color": "ff0000"}, {"id": 2, "name": "notable", "default": true}],
+        "pull_request": {"url": "https://api.github.com/pulls/100", "diff_url": "https://github.com/pulls/100.diff"},
+        "reactions": {"total_count": 5, "+1": 3},
+        "closed_at": null
+      },
+      {"number": 99, "title": "Other", "html_url": "x", "labels": [], "score": -1.5e3}
+    ]'''
+
+    def "keeps only projected fields"() {
+        def projection = JsonProjection.of("number", "title", "html_url", "labels.name", "pull_request.url")
+
+        when:
+        def result = read(issues, projection)
+
+        then:
+        result.size() == 2
+        result[0].keySet() == ["number", "title", "html_url", "labels", "pull_request"] as Set
+        result[0].number == new BigDecimal(100)
+        result[0].title == 'Fix "quoted" text A'
+        result[0].labels == [[name: "bugfix"], [name: "notable"]]
+        result[0].pull_request == [url: "https://api.github.com/pulls/100"]
+
+        result[1].keySet() == ["number", "title", "html_url", "labels"] as Set
+        result[1].labels == []
+    }
+
+    def "keeps entire value of leaf fields"() {
+        when:
+        def result = read(issues, JsonProjection.of("user", "closed_at"))
+
+        then:
+        result[0] == [user: [login: "szczepiq", id: new BigDecimal(123), site_admin: false], closed_at: null]
+        result[1] == [:]
+    }
+
+    def "reports malformed content"() {
+        when:
+        read('[{"number": 1,]', JsonProjection.of("number"))
+
+        then:
+        def e = thrown(IOException)
+        e.message.contains("Malformed Json")
+    }
+
+    private static List read(String json, JsonProjection projection) {
+        new ProjectingJsonReader(new ByteArrayInputStream(json.getBytes("UTF-8")), projection).readArray()
+    }
+}
@@ -0,0 +1,100 @@
+package org.shipkit.internal.notes.util
+
+import spock.lang.Specification
+
+class RateLimitingGitHubTransportTest extends Specification {
+
+    def delegate = Mock(GitHubTransport)
+    def now = 1000000L
+    def sleeps = []
+
+    def transport = new RateLimitingGitHubTransport(delegate, 2) {
+        long currentTimeMillis() { now }
+        void sleep(long millis) { if (millis > 0) { sleeps << millis; now += millis } }
+    }
+
+    def request = GitHubRequest.get("https://api.github.com/users/foo")
+
+    def "does not wait while there is plenty of budget"() {
+        delegate.execute(request) >> response(200, 4000, 3600)
+
+        when:
+        3.times { transport.execute(request) }
+
+        then:
+        sleeps.empty
+    }
+
+    def "waits for the reset when budget is used up"() {
+        delegate.execute(request) >> response(200, RateLimitingGitHubTransport.RESERVE, 60)
+
+        when:
+        transport.execute(request)
+        transport.execute(request)
+
+        then:
+        sleeps == [61000L]
+    }
+
+    def "paces requests when budget is low"() {
+        delegate.execute(request) >> response(200, 16, 100)
+
+        when:
+        transport.execute(request)
+        transport.execute(request)
+
+        then:
+        //15 remaining after reservation, 100s until reset spread over 11 usable requests
+        sleeps == [9090L]
+    }
+
+    def "all callers wait for the reset once the budget is used up"() {
+        transport.update(response(200, RateLimitingGitHubTransport.RESERVE, 60))
+
+        expect:
+        transport.reserveBudget() == 61000L
+        //concurrent callers must not spend the reserve while the first one waits
+        transport.reserveBudget() == 61000L
+
+        when:
+        now += 30000
+
+        then:
+        transport.reserveBudget() == 31000L
+    }
+
+    def "paces concurrent callers using shared time slots"() {
+        transport.update(response(200, 16, 100))
+
+        expect:
+        //consecutive slots, not the same delay for every caller
+        transport.reserveBudget() == 9090L
+        transport.reserveBudget() == 9090L + 10000L
+        transport.reserveBudget() == 9090L + 10000L + 11111L
+    }
+
+    def "repeats the request after waiting when the limit was exceeded"() {
+        when:
+        def r = transport.execute(request)
+
+        then:
+        1 * delegate.execute(request) >> response(403, 0, 30)
+        1 * delegate.execute(request) >> response(200, 5000, 3600)
+        r.statusCode == 200
+        sleeps == [31000L]
+    }
+
+    def "honors Retry-After of secondary limits"() {
+        expect:
+        transport.limitExceededWait(new GitHubResponse(403, ["Retry-After": ["20"]], new byte[0], false)) == 20000
+        transport.limitExceededWait(new GitHubResponse(403, [:], new byte[0], false)) == -1
+        transport.limitExceededWait(new GitHubResponse(200, [:], new byte[0], false)) == -1
+    }
+
+    private GitHubResponse response(int status, int remaining, int resetInSeconds) {
+        new GitHubResponse(status, [
+                "X-RateLimit-Remaining": [remaining.toString()],
+                "X-RateLimit-Reset": [(now.intdiv(1000) + resetInSeconds).toString()]
+        ], new byte[0], false)
+    }
+}
@@ -0,0 +1,159 @@
+package org.shipkit.internal.notes.util
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class RetryingGitHubTransportTest extends Specification {
+
+    def delegate = Mock(GitHubTransport)
+    def breaker = new CircuitBreaker(3, 30000)
+    def sleeps = []
+    def now = 0L
+
+    def transport = new RetryingGitHubTransport(delegate, breaker, 3, 100) {
+        void sleep(long millis) { sleeps << millis }
+    }
+
+    def get = GitHubRequest.get("https://api.github.com/users/foo")
+
+    def "retries transient failures"() {
+        when:
+        def r = transport.execute(get)
+
+        then:
+        1 * delegate.execute(get) >> { throw new IOException("Connection reset") }
+        1 * delegate.execute(get) >> response(502)
+        1 * delegate.execute(get) >> response(200)
+        r.statusCode == 200
+        sleeps.size() == 2
+        sleeps[0] < 100
+        sleeps[1] < 200
+        !breaker.open
+    }
+
+    def "gives up after max attempts"() {
+        when:
+        def r = transport.execute(get)
+
+        then:
+        3 * delegate.execute(get) >> response(503)
+        r.statusCode == 503
+    }
+
+    def "does not retry other failures"() {
+        when:
+        def r = transport.execute(get)
+
+        then:
+        1 * delegate.execute(get) >> response(404)
+        r.statusCode == 404
+        sleeps.empty
+    }
+
+    def "retries socket timeouts"() {
+        when:
+        def r = transport.execute(get)
+
+        then:
+        1 * delegate.execute(get) >> { throw new SocketTimeoutException("Read timed out") }
+        1 * delegate.execute(get) >> response(200)
+        r.statusCode == 200
+        sleeps.size() == 1
+    }
+
+    @Unroll
+    def "does not retry nor record failure when request is interrupted by #exception"() {
+        when:
+        3.times {
+            try {
+                transport.execute(get)
+                assert false
+            } catch (IOException e) {
+                assert e.is(exception)
+            }
+        }
+
+        then:
+        3 * delegate.execute(get) >> { throw exception }
+        sleeps.empty
+        !breaker.open
+
+        where:
+        exception << [new InterruptedIOException("Interrupted"), new IOException("Interrupted", new InterruptedException())]
+    }
+
+    def "does not retry nor record failure when thread is interrupted"() {
+        when:
+        transport.execute(get)
+
+        then:
+        1 * delegate.execute(get) >> {
+            Thread.currentThread().interrupt()
+            throw new IOException("Connection closed")
+        }
+        thrown(IOException)
+        Thread.interrupted() //clears the flag
+        sleeps.empty
+        !breaker.open
+    }
+
+    def "interrupted trial request does not keep the circuit open"() {
+        def b = new CircuitBreaker(1, 1000) {
+            long currentTimeMillis() { now }
+        }
+        def t = new RetryingGitHubTransport(delegate, b, 3, 100)
+        b.recordFailure()
+        now = 1000
+
+        when:
+        t.execute(get)
+
+        then:
+        1 * delegate.execute(get) >> { throw new InterruptedIOException("Interrupted") }
+        thrown(InterruptedIOException)
+        b.allowRequest()
+    }
+
+    def "fails fast when circuit is open"() {
+        3.times { breaker.recordFailure() }
+
+        when:
+        transport.execute(get)
+
+        then:
+        def e = thrown(IOException)
+        e.message.contains("GitHub API appears to be down")
+        0 * delegate._
+    }
+
+    def "circuit breaker permits single trial after cool down"() {
+        def b = new CircuitBreaker(2, 1000) {
+            long currentTimeMillis() { now }
+        }
+
+        when:
+        b.recordFailure()
+        b.recordFailure()
+
+        then:
+        !b.allowRequest()
+
+        when:
+        now = 1000
+
+        then:
+        b.allowRequest()
+        !b.allowRequest()
+
+        when:
+        b.recordSuccess()
+
+        then:
+        b.allowRequest()
+        !b.open
+    }
+
+    private static GitHubResponse response(int status) {
+        new GitHubResponse(status, [:], new byte[0], false)
+    }
+}
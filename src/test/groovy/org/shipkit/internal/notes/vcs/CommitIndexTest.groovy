@@ -0,0 +1,61 @@
+package org.shipkit.internal.notes.vcs
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+class CommitIndexTest extends Specification {
+
+    @Rule
+    TemporaryFolder tmp = new TemporaryFolder()
+
+    def "saves and loads commits"() {
+        def file = new File(tmp.root, "shipkit/commit-index.json")
+        def index = new CommitIndex(file)
+        index.put(new GitCommit("a5797f9", "szczepiq@gmail.com", "Szczepan Faber", "Fixed #10 and #12\nnext line"))
+
+        when:
+        index.save()
+        def loaded = CommitIndex.load(file)
+
+        then:
+        def c = loaded.get("a5797f9")
+        c.authorEmail == "szczepiq@gmail.com"
+        c.authorName == "Szczepan Faber"
+        c.message == "Fixed #10 and #12\nnext line"
+        c.tickets as List == ["10", "12"]
+        c == new GitCommit("a5797f9", "szczepiq@gmail.com", "Szczepan Faber", "Fixed #10 and #12\nnext line")
+        !loaded.get("b9d694f")
+    }
+
+    def "does not write the file when nothing was added"() {
+        def file = new File(tmp.root, "commit-index.json")
+
+        when:
+        new CommitIndex(file).save()
+
+        then:
+        !file.exists()
+    }
+
+    def "ignores unreadable index"() {
+        def file = tmp.newFile("commit-index.json")
+        file << "not json"
+
+        expect:
+        CommitIndex.load(file).isEmpty()
+    }
+
+    def "ignores index written by different version"() {
+        def file = tmp.newFile("commit-index.json")
+        file << '{"version": 0, "commits": [{"commitId": "a5797f9", "email": "a@b", "author": "A", "message": "m", "tickets": []}]}'
+
+        expect:
+        CommitIndex.load(file).isEmpty()
+    }
+
+    def "missing index is empty"() {
+        expect:
+        CommitIndex.load(new File(tmp.root, "missing.json")).isEmpty()
+    }
+}
@@ -31,9 +31,10 @@ class DefaultReleasedVersionsProviderTest extends Specification {
     }
 
     def "provides versions "() {
-        dateProvider.getDate("v2.0.0") >> DateFormat.parseUTCDate("2017-02-15")
-        dateProvider.getDate("v1.5.0") >> DateFormat.parseUTCDate("2017-01-30")
-        dateProvider.getDate("v1.0.0") >> DateFormat.parseUTCDate("2017-01-15")
+        dateProvider.getDates(_) >> [
+                "v2.0.0": DateFormat.parseUTCDate("2017-02-15"),
+                "v1.5.0": DateFormat.parseUTCDate("2017-01-30"),
+                "v1.0.0": DateFormat.parseUTCDate("2017-01-15")]
 
         expect:
         //with head version
@@ -44,4 +45,18 @@ class DefaultReleasedVersionsProviderTest extends Specification {
         provider.getReleasedVersions(null, null, ["2.0.0", "1.5.0", "1.0.0"], "v").toString() ==
                 "[2.0.0@2017-02-15(v2.0.0..v1.5.0), 1.5.0@2017-01-30(v1.5.0..v1.0.0), 1.0.0@2017-01-15(v1.0.0..null)]"
     }
-}
\ No newline at end of file
+
+    def "provides previous release dates"() {
+        dateProvider.getDates(["v1.5.0", "v1.0.0"]) >> [
+                "v1.5.0": DateFormat.parseUTCDate("2017-01-30"),
+                "v1.0.0": DateFormat.parseUTCDate("2017-01-15")]
+
+        when:
+        def versions = provider.getReleasedVersions("2.0.0", someDate, ["1.5.0", "1.0.0"], "v") as List
+
+        then:
+        versions[0].previousDate == DateFormat.parseUTCDate("2017-01-30")
+        versions[1].previousDate == DateFormat.parseUTCDate("2017-01-15")
+        versions[2].previousDate == null
+    }
+}
@@ -1,23 +1,29 @@
 package org.shipkit.internal.notes.vcs
 
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import org.shipkit.internal.exec.ProcessOutputHandler
+import org.shipkit.internal.notes.model.Commit
+import org.shipkit.internal.notes.util.LruCache
 import spock.lang.Specification
 import spock.lang.Subject
 
 class GitContributionsProviderTest extends Specification {
 
+    @Rule
+    TemporaryFolder tmp = new TemporaryFolder()
+
     def logProvider = Mock(GitLogProvider)
-    @Subject provider = new GitContributionsProvider(logProvider, new IgnoredCommit(["[ci skip]"]))
+    def commitsCache = new LruCache<String, Collection<Commit>>(64)
+    @Subject provider = new GitContributionsProvider(logProvider, new IgnoredCommit(["[ci skip]"]), null, commitsCache)
 
-    def log = """a5797f9e6cfc06e2fa70ed12ee6c9571af8a7fc9@@info@@szczepiq@gmail.com@@info@@Szczepan Faber@@info@@Tidy-up in buildSrc
-next line
-@@commit@@
-b9d694f4c25880d9dda21ac216053f2bd0f5673c@@info@@szczepiq@gmail.com@@info@@Szczepan Faber@@info@@Tidy-up in buildSrc - started using an interface where possible
-@@commit@@
-c76924d41c219f3b71b50a28d80c23c9c81b7a8c@@info@@john@doe@@info@@John R. Doe@@info@@dummy commit
-@@commit@@"""
+    //'git log -z' output, fields and commits are separated with NUL
+    def log = "a5797f9e6cfc06e2fa70ed12ee6c9571af8a7fc9\u0000szczepiq@gmail.com\u0000Szczepan Faber\u0000Tidy-up in buildSrc\nnext line\n\u0000" +
+            "b9d694f4c25880d9dda21ac216053f2bd0f5673c\u0000szczepiq@gmail.com\u0000Szczepan Faber\u0000Tidy-up in buildSrc - started using an interface where possible\n\u0000" +
+            "c76924d41c219f3b71b50a28d80c23c9c81b7a8c\u0000john@doe\u0000John R. Doe\u0000dummy commit\n"
 
     def "provides contributions"() {
-        logProvider.getLog("v1.10.10", "HEAD", "--pretty=format:%H@@info@@%ae@@info@@%an@@info@@%B%N@@commit@@") >> log
+        logProvider.streamLog("v1.10.10", "HEAD", "--pretty=format:%H%x00%ae%x00%an%x00%B%N", _) >> stream(log)
 
         when:
         def c = provider.getContributionsBetween("v1.10.10", "HEAD")
@@ -28,10 +34,12 @@ c76924d41c219f3b71b50a28d80c23c9c81b7a8c@@info@@john@doe@@info@@John R. Doe@@inf
         commits[0].authorName == "Szczepan Faber"
         commits[0].authorEmail == "szczepiq@gmail.com"
         commits[0].message == "Tidy-up in buildSrc\nnext line"
+        commits[2].commitId == "c76924d41c219f3b71b50a28d80c23c9c81b7a8c"
+        commits[2].message == "dummy commit"
     }
 
-    def "has basic handling of garbage in log"() {
-        logProvider.getLog(_, _, _) >> (log + " some garbage \n@@commit@@\n more garbage")
+    def "ignores truncated commit at the end of the log"() {
+        logProvider.streamLog(_, _, _, _) >> stream(log + "\u0000d76924d41c219f3b71b50a28d80c23c9c81b7a8c\u0000john@doe")
 
         when:
         def c = provider.getContributionsBetween("v1.10.10", "HEAD")
@@ -41,7 +49,7 @@ c76924d41c219f3b71b50a28d80c23c9c81b7a8c@@info@@john@doe@@info@@John R. Doe@@inf
     }
 
     def "handles empty log"() {
-        logProvider.getLog(_, _, _) >> ""
+        logProvider.streamLog(_, _, _, _) >> stream("")
 
         when:
         def c = provider.getContributionsBetween("v1.10.10", "HEAD")
@@ -51,15 +59,124 @@ c76924d41c219f3b71b50a28d80c23c9c81b7a8c@@info@@john@doe@@info@@John R. Doe@@inf
     }
 
     def "should skip ci commits"() {
-        def logWithSkipCiCommits = log + """11197f9e6cfc06e2fa70ed12ee6c9571af8a7fc9@@info@@szczepiq@gmail.com@@info@@Szczepan Faber@@info@@[ci skip]sample message
-second line
-@@commit@@"""
-        logProvider.getLog(_, _, _) >> logWithSkipCiCommits
+        def logWithSkipCiCommits = log + "\u000011197f9e6cfc06e2fa70ed12ee6c9571af8a7fc9\u0000szczepiq@gmail.com\u0000Szczepan Faber\u0000[ci skip]sample message\nsecond line\n"
+        logProvider.streamLog(_, _, _, _) >> stream(logWithSkipCiCommits)
 
         when:
         def c = provider.getContributionsBetween("v1.10.10", "HEAD")
 
         then:
         c.allCommits.size() == 3
+        !c.allCommits.find { it.commitId == "11197f9e6cfc06e2fa70ed12ee6c9571af8a7fc9" }
+    }
+
+    def "reuses commits loaded for the same range of commit ids"() {
+        logProvider.resolveRange("v1.10.10", "HEAD") >> "a5797f9..c76924d"
+
+        when:
+        def c1 = provider.getContributionsBetween("v1.10.10", "HEAD")
+        def c2 = new GitContributionsProvider(logProvider, new IgnoredCommit([]), null, commitsCache).getContributionsBetween("v1.10.10", "HEAD")
+
+        then:
+        1 * logProvider.streamLog(_, _, _, _) >> stream(log)
+        c1.allCommits.size() == 3
+        c2.allCommits.size() == 3
+        commitsCache.size() == 1
+    }
+
+    def "does not reuse commits when the range of commit ids is unknown"() {
+        logProvider.resolveRange("v1.10.10", "HEAD") >> null
+
+        when:
+        provider.getContributionsBetween("v1.10.10", "HEAD")
+        provider.getContributionsBetween("v1.10.10", "HEAD")
+
+        then:
+        2 * logProvider.streamLog(_, _, _, _) >> stream(log)
+        commitsCache.size() == 0
+    }
+
+    def "loads commits again when the range resolves to different commit ids"() {
+        logProvider.resolveRange("v1.10.10", "HEAD") >>> ["a5797f9..aaa", "a5797f9..bbb"]
+
+        when:
+        provider.getContributionsBetween("v1.10.10", "HEAD")
+        provider.getContributionsBetween("v1.10.10", "HEAD")
+
+        then:
+        2 * logProvider.streamLog(_, _, _, _) >> stream(log)
+        commitsCache.size() == 2
+    }
+
+    def "indexes parsed commits"() {
+        def indexFile = new File(tmp.root, "commit-index.json")
+        def provider = new GitContributionsProvider(logProvider, new IgnoredCommit([]), CommitIndex.load(indexFile), commitsCache)
+        logProvider.streamLog(_, _, GitCommitReader.LOG_FORMAT, _) >> stream(log)
+
+        when:
+        provider.getContributionsBetween("v1.10.10", "HEAD")
+
+        then:
+        def index = CommitIndex.load(indexFile)
+        index.get("a5797f9e6cfc06e2fa70ed12ee6c9571af8a7fc9").message == "Tidy-up in buildSrc\nnext line"
+        index.get("c76924d41c219f3b71b50a28d80c23c9c81b7a8c").authorName == "John R. Doe"
+    }
+
+    def "reads only commit ids when all commits are indexed"() {
+        def index = new CommitIndex(new File(tmp.root, "commit-index.json"))
+        index.put(new GitCommit("a5797f9", "szczepiq@gmail.com", "Szczepan Faber", "Fixed #10"))
+        index.put(new GitCommit("b9d694f", "john@doe", "John R. Doe", "[ci skip] dummy commit"))
+        def provider = new GitContributionsProvider(logProvider, new IgnoredCommit(["[ci skip]"]), index, commitsCache)
+
+        when:
+        def c = provider.getContributionsBetween("v1.10.10", "HEAD")
+
+        then:
+        1 * logProvider.streamLog("v1.10.10", "HEAD", "--pretty=format:%H", _) >> stream("a5797f9\u0000b9d694f")
+        0 * logProvider.streamLog(_, _, GitCommitReader.LOG_FORMAT, _)
+        0 * logProvider.streamCommits(_, _, _)
+        c.allCommits*.commitId == ["a5797f9"]
+        c.allTickets == ["10"] as Set
+    }
+
+    def "reads and parses only the commits that are not indexed yet"() {
+        def index = new CommitIndex(new File(tmp.root, "commit-index.json"))
+        def indexed = new GitCommit("b9d694f4c25880d9dda21ac216053f2bd0f5673c", "szczepiq@gmail.com", "Szczepan Faber", "Fixed #10")
+        index.put(indexed)
+        def provider = new GitContributionsProvider(logProvider, new IgnoredCommit([]), index, commitsCache)
+        def newCommits = "c76924d41c219f3b71b50a28d80c23c9c81b7a8c\u0000john@doe\u0000John R. Doe\u0000dummy commit\n\u0000" +
+                "a5797f9e6cfc06e2fa70ed12ee6c9571af8a7fc9\u0000szczepiq@gmail.com\u0000Szczepan Faber\u0000Fixed #11\n"
+
+        when:
+        def c = provider.getContributionsBetween("v1.10.10", "HEAD")
+
+        then:
+        1 * logProvider.streamLog(_, _, "--pretty=format:%H", _) >> stream("a5797f9e6cfc06e2fa70ed12ee6c9571af8a7fc9\u0000" +
+                "b9d694f4c25880d9dda21ac216053f2bd0f5673c\u0000c76924d41c219f3b71b50a28d80c23c9c81b7a8c")
+        1 * logProvider.streamCommits(["a5797f9e6cfc06e2fa70ed12ee6c9571af8a7fc9", "c76924d41c219f3b71b50a28d80c23c9c81b7a8c"],
+                GitCommitReader.LOG_FORMAT, _) >> { args -> (args[2] as ProcessOutputHandler).handleOutput(new ByteArrayInputStream(newCommits.getBytes("UTF-8"))) }
+        0 * logProvider.streamLog(_, _, GitCommitReader.LOG_FORMAT, _)
+
+        and: "commits are in the order of the log"
+        def commits = c.allCommits as List
+        commits*.commitId == ["a5797f9e6cfc06e2fa70ed12ee6c9571af8a7fc9", "b9d694f4c25880d9dda21ac216053f2bd0f5673c", "c76924d41c219f3b71b50a28d80c23c9c81b7a8c"]
+        commits[1].is(indexed)
+        commits[0].message == "Fixed #11"
+        c.allTickets == ["11", "10"] as Set
+
+        and: "new commits are indexed"
+        index.get("c76924d41c219f3b71b50a28d80c23c9c81b7a8c").authorName == "John R. Doe"
+    }
+
+    def "fetches tags"() {
+        when:
+        provider.fetchTags(["v1.0.0", "v1.1.0"])
+
+        then:
+        1 * logProvider.fetchTags(["v1.0.0", "v1.1.0"])
+    }
+
+    private static Closure stream(String log) {
+        return { args -> (args[3] as ProcessOutputHandler).handleOutput(new ByteArrayInputStream(log.getBytes("UTF-8"))) }
     }
 }
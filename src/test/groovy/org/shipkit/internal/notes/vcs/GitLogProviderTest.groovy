@@ -1,5 +1,6 @@
 package org.shipkit.internal.notes.vcs
 
+import org.shipkit.internal.exec.ProcessOutputHandler
 import org.shipkit.internal.exec.ProcessRunner
 import spock.lang.Specification
 import spock.lang.Subject
@@ -9,16 +10,77 @@ class GitLogProviderTest extends Specification {
     def runner = Mock(ProcessRunner)
     @Subject provider = new GitLogProvider(runner)
 
-    def "provides log"() {
+    def "streams log"() {
+        def handler = Mock(ProcessOutputHandler)
+
+        when:
+        provider.streamLog("v1.10.10", "HEAD", "--pretty=foo", handler)
+
+        then:
+        1 * runner.run("git", "for-each-ref", "--format=%(refname)", "refs/tags") >> "refs/tags/v1.0.0\n"
+        1 * runner.run(["git", "fetch", "origin", "+refs/tags/v1.10.10:refs/tags/v1.10.10"])
+        1 * runner.run(handler, ["git", "log", "-z", "--pretty=foo", "v1.10.10..HEAD"])
+        0 * _
+    }
+
+    def "does not fetch tag that is available locally"() {
+        def handler = Mock(ProcessOutputHandler)
+
+        when:
+        provider.streamLog("v1.10.10", "HEAD", "--pretty=foo", handler)
+        provider.streamLog("v1.10.10", "HEAD", "--pretty=bar", handler)
+
+        then:
+        1 * runner.run("git", "for-each-ref", "--format=%(refname)", "refs/tags") >> "refs/tags/v1.0.0\nrefs/tags/v1.10.10\n"
+        1 * runner.run(handler, ["git", "log", "-z", "--pretty=foo", "v1.10.10..HEAD"])
+        1 * runner.run(handler, ["git", "log", "-z", "--pretty=bar", "v1.10.10..HEAD"])
+        0 * _
+    }
+
+    def "fetches all missing tags at once"() {
         when:
-        def log = provider.getLog("v1.10.10", "HEAD", "--pretty=foo")
+        provider.fetchTags(["v1.0.0", "v1.1.0", "v1.2.0"])
 
         then:
-        1 * runner.run("git", "fetch", "origin", "+refs/tags/v1.10.10:refs/tags/v1.10.10")
-        1 * runner.run("git", "log", "--pretty=foo", "v1.10.10..HEAD") >> "some output"
+        1 * runner.run("git", "for-each-ref", "--format=%(refname)", "refs/tags") >> "refs/tags/v1.1.0\n"
+        1 * runner.run(["git", "fetch", "origin", "+refs/tags/v1.0.0:refs/tags/v1.0.0", "+refs/tags/v1.2.0:refs/tags/v1.2.0"])
+        0 * _
+
+        when:
+        provider.streamLog("v1.2.0", "HEAD", "--pretty=foo", Mock(ProcessOutputHandler))
+
+        then:
+        1 * runner.run(_ as ProcessOutputHandler, ["git", "log", "-z", "--pretty=foo", "v1.2.0..HEAD"])
+        0 * _
+    }
+
+    def "streams log of given commits only"() {
+        def handler = Mock(ProcessOutputHandler)
+
+        when:
+        provider.streamCommits(["aaa", "bbb"], "--pretty=foo", handler)
+
+        then:
+        1 * runner.run(handler, ["git", "log", "--no-walk", "-z", "--pretty=foo", "aaa", "bbb"])
+        0 * _
+    }
+
+    def "resolves range of commit ids without fetching"() {
+        when:
+        def range = provider.resolveRange("v1.10.10", "HEAD")
+
+        then:
+        1 * runner.run("git", "rev-parse", "v1.10.10^{commit}", "HEAD^{commit}") >> "aaa\nbbb\n"
         0 * _
 
         and:
-        log == "some output"
+        range == "aaa..bbb"
+    }
+
+    def "does not resolve range when revision is not available locally"() {
+        runner.run("git", "rev-parse", "v1.10.10^{commit}", "HEAD^{commit}") >> { throw new RuntimeException("unknown revision") }
+
+        expect:
+        provider.resolveRange("v1.10.10", "HEAD") == null
     }
 }
@@ -0,0 +1,77 @@
+package org.shipkit.internal.notes.vcs
+
+import org.eclipse.jgit.api.Git
+import org.eclipse.jgit.lib.PersonIdent
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import org.shipkit.internal.notes.internal.DateFormat
+import spock.lang.Specification
+
+class JGitContributionsProviderTest extends Specification {
+
+    @Rule
+    TemporaryFolder tmp = new TemporaryFolder()
+
+    Git git
+
+    def setup() {
+        git = Git.init().setDirectory(tmp.root).call()
+    }
+
+    def cleanup() {
+        git.repository.close()
+    }
+
+    def "provides contributions between revisions"() {
+        commit("initial", "2017-01-10")
+        git.tag().setName("v1.0.0").call()
+        commit("Fixed #10", "2017-01-20")
+        commit("[ci skip] version bump", "2017-01-21")
+        def last = commit("Fixed #11\n\nmore details", "2017-01-22")
+        git.notesAdd().setObjectId(last).setMessage("note").call()
+
+        when:
+        def contributions = new JGitContributionsProvider(tmp.root, new IgnoredCommit(["[ci skip]"]))
+                .getContributionsBetween("v1.0.0", "HEAD")
+
+        then:
+        def commits = contributions.allCommits as List
+        commits*.message == ["Fixed #11\n\nmore details\nnote", "Fixed #10"]
+        commits[0].commitId == last.name
+        commits[0].authorName == "Szczepan Faber"
+        commits[0].authorEmail == "szczepiq@gmail.com"
+        contributions.allTickets == ["11", "10"] as Set
+    }
+
+    def "provides revisions and dates"() {
+        def first = commit("initial", "2017-01-10")
+        git.tag().setName("v1.0.0").call()
+        commit("second", "2017-01-20")
+        git.tag().setName("v1.1.0").setMessage("annotated tag").call()
+        def provider = new JGitRevisionProvider(tmp.root)
+
+        when:
+        def dates = provider.getDates(["v1.1.0", "v1.0.0"])
+
+        then:
+        dates.keySet() as List == ["v1.1.0", "v1.0.0"]
+        dates.values().collect { DateFormat.formatDate(it) } == ["2017-01-20", "2017-01-10"]
+        provider.getRevisionForTagOrRevision("v1.0.0") == first.name
+    }
+
+    def "fails when revision does not exist"() {
+        commit("initial", "2017-01-10")
+
+        when:
+        new JGitRevisionProvider(tmp.root).getRevisionForTagOrRevision("v9.9.9")
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message == "Can't find revision v9.9.9. Are you sure this revision or tag exists?"
+    }
+
+    private commit(String message, String date) {
+        def author = new PersonIdent("Szczepan Faber", "szczepiq@gmail.com", DateFormat.parseUTCDate(date), TimeZone.getTimeZone("UTC"))
+        git.commit().setMessage(message).setAuthor(author).setCommitter(author).call()
+    }
+}
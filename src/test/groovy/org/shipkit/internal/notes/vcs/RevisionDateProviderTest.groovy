@@ -33,4 +33,33 @@ class RevisionDateProviderTest extends Specification {
                 " Following output was returned by git:\n" +
                 "fatal: ambiguous argument 'v1.0.0'"
     }
+
+    def "provides dates of many tags with single git invocation"() {
+        when:
+        def dates = provider.getDates(["v3.0.0", "v2.0.0", "v1.0.0"])
+
+        then:
+        1 * runner.run("git", "for-each-ref", "--format=%(refname)\t%(authordate:iso)\t%(*authordate:iso)", "refs/tags") >>
+                "refs/tags/v1.0.0\t2017-01-29 08:14:09 -0800\t\n" +
+                "refs/tags/v2.0.0\t\t2017-01-30 10:14:09 -0400\n" +
+                "refs/tags/v3.0.0\t2017-04-11 13:59:59 +0000\n" +
+                "refs/tags/v4.0.0\t2017-05-11 13:59:59 +0000\n"
+        0 * _
+
+        and:
+        dates.keySet() as List == ["v3.0.0", "v2.0.0", "v1.0.0"]
+        dates.values().collect { DateFormat.formatDate(it) } == ["2017-04-11", "2017-01-30", "2017-01-29"]
+    }
+
+    def "provides dates of revisions that are not tags"() {
+        runner.run("git", "for-each-ref", _, "refs/tags") >> "refs/tags/v1.0.0\t2017-01-29 08:14:09 -0800\n"
+
+        when:
+        def dates = provider.getDates(["HEAD", "v1.0.0"])
+
+        then:
+        1 * runner.run("git", "log", "--pretty=%ad", "--date=iso", "HEAD", "-n", "1") >> "2017-04-11 13:59:59 +0000"
+        DateFormat.formatDate(dates["HEAD"]) == "2017-04-11"
+        DateFormat.formatDate(dates["v1.0.0"]) == "2017-01-29"
+    }
 }
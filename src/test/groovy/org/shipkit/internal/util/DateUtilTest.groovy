@@ -19,4 +19,14 @@ class DateUtilTest extends Specification {
         expect:
         DateUtil.forGitHub(date, tz) == "2017-02-01T12:00:00+0000"
     }
+
+    def "gitHub format uses calendar year at the end of December"() {
+        //last days of December belong to the first week of the next year, week year pattern would move the date a year ahead
+        def tz = TimeZone.getTimeZone("UTC")
+        def cal = Calendar.getInstance(tz)
+        cal.set(2018, Calendar.DECEMBER, 31, 23, 30, 0)
+
+        expect:
+        DateUtil.forGitHub(cal.getTime(), tz) == "2018-12-31T23:30:00+0000"
+    }
 }
@@ -0,0 +1,194 @@
+package testutil
+
+import com.sun.net.httpserver.HttpExchange
+import com.sun.net.httpserver.HttpHandler
+import com.sun.net.httpserver.HttpServer
+import groovy.json.JsonOutput
+
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Embedded http server that imitates GitHub API endpoints used by Shipkit fetchers:
+ * issues (list and single), commits, contributors and users.
+ * Supports pagination 'Link' headers, rate limit headers and configurable latency.
+ * Data comes from {@link SyntheticGitHubData}.
+ * <p>
+ * Usage:
+ * <pre>
+ * def server = new FakeGitHubServer(SyntheticGitHubData.generate(1000, 100, 1000)).start()
+ * fetcher.fetch(server.apiUrl, "owner/repo", "token")
+ * server.stop()
+ * </pre>
+ */
+class FakeGitHubServer {
+
+    final SyntheticGitHubData data
+
+    /**
+     * Latency added to every response
+     */
+    long latencyMillis = 0
+
+    /**
+     * Value of 'X-RateLimit-Limit' header, remaining budget is decremented with each request
+     */
+    int rateLimit = 1000000
+
+    final AtomicInteger requests = new AtomicInteger()
+    final AtomicLong bytes = new AtomicLong()
+
+    private final AtomicInteger rateLimitUsed = new AtomicInteger()
+    private HttpServer server
+    private ExecutorService executor
+
+    //indexes so that the server does not dominate the measured time
+    private final List<Map> issuesByUpdate
+    private final Map<Integer, Map> issueJson = [:]
+    private final Map<String, Map> users = [:]
+
+    FakeGitHubServer(SyntheticGitHubData data) {
+        this.data = data
+        this.issuesByUpdate = data.issues.sort(false) { it.updated }
+        data.issues.each { issueJson[it.number] = toIssueJson(it) }
+        data.contributors.each { users[it.login] = it }
+    }
+
+    FakeGitHubServer start() {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0)
+        executor = Executors.newFixedThreadPool(16)
+        server.executor = executor
+        server.createContext("/", new HttpHandler() {
+            void handle(HttpExchange exchange) {
+                try {
+                    serve(exchange)
+                } catch (Throwable t) {
+                    send(exchange, 500, [message: t.toString()], null)
+                }
+            }
+        })
+        server.start()
+        this
+    }
+
+    void stop() {
+        server?.stop(0)
+        executor?.shutdownNow()
+    }
+
+    String getApiUrl() {
+        "http://localhost:${server.address.port}".toString()
+    }
+
+    /**
+     * Resets request counters
+     */
+    void resetCounters() {
+        requests.set(0)
+        bytes.set(0)
+    }
+
+    private void serve(HttpExchange exchange) {
+        if (latencyMillis > 0) {
+            Thread.sleep(latencyMillis)
+        }
+        def path = exchange.requestURI.path
+        def query = parseQuery(exchange.requestURI.rawQuery)
+        def m
+        if ((m = path =~ '^/repos/[^/]+/[^/]+/issues/(\\d+)$')) {
+            def issue = issueJson[m[0][1] as int]
+            issue ? send(exchange, 200, issue, null) : notFound(exchange)
+        } else if (path ==~ '^/repos/[^/]+/[^/]+/issues$') {
+            def state = query.state ?: "open"
+            long since = query.since ? SyntheticGitHubData.parseDate(query.since) : Long.MIN_VALUE
+            def issues = (query.sort == "updated" ? issuesByUpdate : data.issues).findAll {
+                (state == "all" || it.state == state) && it.updated >= since
+            }
+            if (query.direction != "asc") {
+                issues = issues.reverse()
+            }
+            sendPage(exchange, query, issues.collect { issueJson[it.number] })
+        } else if (path ==~ '^/repos/[^/]+/[^/]+/contributors$') {
+            sendPage(exchange, query, data.contributors.collect {
+                [login: it.login, contributions: it.contributions,
+                 html_url: "https://github.com/$it.login".toString(), url: "$apiUrl/users/$it.login".toString()]
+            })
+        } else if ((m = path =~ '^/users/([^/]+)$')) {
+            def user = users[m[0][1]]
+            user ? send(exchange, 200, [login: user.login, name: user.name, html_url: "https://github.com/$user.login".toString()], null)
+                    : notFound(exchange)
+        } else if (path ==~ '^/repos/[^/]+/[^/]+/commits$') {
+            long since = query.since ? SyntheticGitHubData.parseDate(query.since) : Long.MIN_VALUE
+            long until = query.until ? SyntheticGitHubData.parseDate(query.until) : Long.MAX_VALUE
+            def commits = data.commits.findAll { it.date >= since && it.date <= until }.reverse()
+            sendPage(exchange, query, commits.collect {
+                [sha: it.sha,
+                 commit: [author: [name: it.name, date: SyntheticGitHubData.formatDate(it.date)]],
+                 author: [login: it.login, html_url: "https://github.com/$it.login".toString()]]
+            })
+        } else {
+            notFound(exchange)
+        }
+    }
+
+    private void sendPage(HttpExchange exchange, Map<String, String> query, List items) {
+        int perPage = Math.min(100, (query.per_page ?: "30") as int)
+        int page = (query.page ?: "1") as int
+        int lastPage = Math.max(1, (int) Math.ceil(items.size() / (double) perPage))
+        def pageItems = items.subList(Math.min(items.size(), (page - 1) * perPage), Math.min(items.size(), page * perPage))
+
+        String link = null
+        if (page < lastPage) {
+            def url = apiUrl + exchange.requestURI.path + "?" + exchange.requestURI.rawQuery
+            link = "<${withPage(url, page + 1)}>; rel=\"next\", <${withPage(url, lastPage)}>; rel=\"last\""
+        }
+        send(exchange, 200, pageItems, link)
+    }
+
+    private void notFound(HttpExchange exchange) {
+        send(exchange, 404, [message: "Not Found"], null)
+    }
+
+    private void send(HttpExchange exchange, int status, Object json, String link) {
+        def body = JsonOutput.toJson(json).getBytes("UTF-8")
+        def headers = exchange.responseHeaders
+        headers.set("Content-Type", "application/json; charset=utf-8")
+        headers.set("X-RateLimit-Limit", String.valueOf(rateLimit))
+        headers.set("X-RateLimit-Remaining", String.valueOf(Math.max(0, rateLimit - rateLimitUsed.incrementAndGet())))
+        headers.set("X-RateLimit-Reset", String.valueOf((long) (System.currentTimeMillis() / 1000 + 3600)))
+        if (link) {
+            headers.set("Link", link)
+        }
+        exchange.sendResponseHeaders(status, body.length)
+        exchange.responseBody.write(body)
+        exchange.close()
+        requests.incrementAndGet()
+        bytes.addAndGet(body.length)
+    }
+
+    private static Map toIssueJson(Map issue) {
+        def json = [number: issue.number, title: issue.title, state: issue.state,
+                html_url: "https://github.com/owner/repo/issues/$issue.number".toString(),
+                updated_at: SyntheticGitHubData.formatDate(issue.updated),
+                labels: issue.labels.collect { [name: it] }]
+        if (issue.pullRequest) {
+            json.pull_request = [url: "https://api.github.com/repos/owner/repo/pulls/$issue.number".toString()]
+        }
+        json
+    }
+
+    private static String withPage(String url, int page) {
+        url =~ '[?&]page=\\d+' ? url.replaceAll('([?&])page=\\d+', '$1page=' + page) : url + "&page=" + page
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        def query = [:]
+        rawQuery?.split("&")?.each {
+            def kv = it.split("=", 2)
+            query[URLDecoder.decode(kv[0], "UTF-8")] = kv.length > 1 ? URLDecoder.decode(kv[1], "UTF-8") : ""
+        }
+        query
+    }
+}
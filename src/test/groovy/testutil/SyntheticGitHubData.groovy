@@ -0,0 +1,60 @@
+package testutil
+
+import java.text.SimpleDateFormat
+
+/**
+ * Synthetic GitHub repository data (issues, contributors, commits) for {@link FakeGitHubServer}.
+ * Data is generated from a fixed seed so that the runs are comparable.
+ */
+class SyntheticGitHubData {
+
+    static final long BASE_TIME = Date.parse("yyyy-MM-dd", "2015-01-01").time
+
+    final List<Map> issues = []
+    final List<Map> contributors = []
+    final List<Map> commits = []
+
+    /**
+     * @param issueCount number of issues and pull requests, numbered from 1
+     * @param contributorCount number of contributors, sorted by contributions descending
+     * @param commitCount number of commits, one commit per minute starting at {@link #BASE_TIME}
+     */
+    static SyntheticGitHubData generate(int issueCount, int contributorCount, int commitCount, long seed = 1) {
+        def data = new SyntheticGitHubData()
+        def random = new Random(seed)
+        def labels = ["bug", "enhancement", "noteworthy", "docs", "refactoring"]
+
+        for (int i = 1; i <= issueCount; i++) {
+            def issueLabels = labels.findAll { random.nextInt(4) == 0 }
+            data.issues << [number: i, title: "Synthetic issue #$i".toString(),
+                    state: random.nextInt(5) == 0 ? "open" : "closed",
+                    pullRequest: random.nextInt(3) == 0,
+                    labels: issueLabels,
+                    //issues are created one per hour and some of them get updated later
+                    updated: BASE_TIME + i * 3600000L + random.nextInt(30) * 86400000L]
+        }
+
+        for (int i = 1; i <= contributorCount; i++) {
+            data.contributors << [login: "user$i".toString(), name: "Synthetic User $i".toString(),
+                    contributions: Math.max(1, (contributorCount - i) * 3 + random.nextInt(3))]
+        }
+
+        for (int i = 1; i <= commitCount && contributorCount > 0; i++) {
+            def author = data.contributors[random.nextInt(contributorCount)]
+            data.commits << [sha: String.format("%040x", i), login: author.login, name: author.name,
+                    date: BASE_TIME + i * 60000L]
+        }
+        data
+    }
+
+    static String formatDate(long time) {
+        def f = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'")
+        f.timeZone = TimeZone.getTimeZone("UTC")
+        f.format(new Date(time))
+    }
+
+    static long parseDate(String date) {
+        def f = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ")
+        f.parse(date.replaceAll('Z$', "+0000")).time
+    }
+}